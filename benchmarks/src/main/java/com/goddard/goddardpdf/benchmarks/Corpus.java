@@ -0,0 +1,100 @@
+package com.goddard.goddardpdf.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public enum Corpus {
+  TEXT_HEAVY(20),
+  IMAGE_HEAVY(10),
+  VECTOR_HEAVY(10),
+  MANY_PAGES(500);
+
+  private static final Path DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "goddard-pdf-benchmarks");
+  private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor incididunt ut labore et dolore magna aliqua";
+
+  private final int pages;
+
+  Corpus(int pages) { this.pages = pages; }
+
+  public int getPages() { return pages; }
+
+  public synchronized File file() throws IOException {
+    File file = DIRECTORY.resolve(name().toLowerCase() + ".pdf").toFile();
+    if (!file.exists()) {
+      Files.createDirectories(DIRECTORY);
+      generate(file);
+    }
+    return file;
+  }
+
+  private void generate(File file) throws IOException {
+    Random random = new Random(42);
+    try (PDDocument document = new PDDocument()) {
+      PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+      for (int i = 0; i < pages; i++) {
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+          switch (this) {
+            case TEXT_HEAVY -> writeText(content, font, random, 60);
+            case IMAGE_HEAVY -> drawImage(document, content, random);
+            case VECTOR_HEAVY -> drawVectors(content, random);
+            case MANY_PAGES -> writeText(content, font, random, 5);
+          }
+        }
+      }
+      document.save(file);
+    }
+  }
+
+  private static void writeText(PDPageContentStream content, PDType1Font font, Random random, int lines) throws IOException {
+    String[] words = WORDS.split(" ");
+    content.beginText();
+    content.setFont(font, 10);
+    content.setLeading(12);
+    content.newLineAtOffset(40, 750);
+    for (int line = 0; line < lines; line++) {
+      StringBuilder text = new StringBuilder();
+      while (text.length() < 100) text.append(words[random.nextInt(words.length)]).append(' ');
+      content.showText(text.toString());
+      content.newLine();
+    }
+    content.endText();
+  }
+
+  private static void drawImage(PDDocument document, PDPageContentStream content, Random random) throws IOException {
+    BufferedImage image = new BufferedImage(1200, 1600, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) image.setRGB(x, y, (x * 255 / image.getWidth()) << 16 | (y * 255 / image.getHeight()) << 8 | random.nextInt(64));
+    }
+    PDImageXObject xObject = LosslessFactory.createFromImage(document, image);
+    content.drawImage(xObject, 36, 36, 540, 720);
+  }
+
+  private static void drawVectors(PDPageContentStream content, Random random) throws IOException {
+    content.setLineWidth(0.5f);
+    for (int i = 0; i < 2000; i++) {
+      content.moveTo(random.nextFloat() * 612, random.nextFloat() * 792);
+      content.curveTo(random.nextFloat() * 612, random.nextFloat() * 792, random.nextFloat() * 612, random.nextFloat() * 792, random.nextFloat() * 612, random.nextFloat() * 792);
+      content.stroke();
+    }
+    for (int i = 0; i < 300; i++) {
+      content.setNonStrokingColor(random.nextFloat(), random.nextFloat(), random.nextFloat());
+      content.addRect(random.nextFloat() * 612, random.nextFloat() * 792, 20, 20);
+      content.fill();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.goddard.goddardpdf.benchmarks;
+
+import com.goddard.goddardpdf.DocumentSource;
+import com.goddard.goddardpdf.ImageExporter;
+import com.goddard.goddardpdf.TextExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExportBenchmark {
+
+  @Param({"TEXT_HEAVY", "IMAGE_HEAVY", "MANY_PAGES"})
+  public Corpus corpus;
+
+  @Param({"1", "4"})
+  public int workers;
+
+  private DocumentSource source;
+  private Path output;
+
+  @Setup(Level.Iteration)
+  public void setup() throws IOException {
+    source = new DocumentSource(corpus.file(), true, 64L * 1024 * 1024);
+    output = Files.createTempDirectory("goddard-pdf-export");
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(output)) {
+      for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+    }
+  }
+
+  @Benchmark
+  public void exportPng() throws IOException, InterruptedException {
+    new ImageExporter(source, workers, 150, Runtime.getRuntime().maxMemory() / 4)
+      .export("PNG", new File(output.toFile(), "page.png"), (exported, total, pagesPerSecond) -> { });
+  }
+
+  @Benchmark
+  public void exportJpeg() throws IOException, InterruptedException {
+    new ImageExporter(source, workers, 150, Runtime.getRuntime().maxMemory() / 4)
+      .export("JPEG", new File(output.toFile(), "page.jpeg"), (exported, total, pagesPerSecond) -> { });
+  }
+
+  @Benchmark
+  public void exportText() throws IOException, InterruptedException {
+    new TextExporter(source, workers).export(new File(output.toFile(), "text.txt"), (exported, total) -> { });
+  }
+}
@@ -0,0 +1,51 @@
+package com.goddard.goddardpdf.benchmarks;
+
+import com.goddard.goddardpdf.PixelBufferPool;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.WritableImage;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FxConversionBenchmark {
+
+  @Param({"72", "150", "300"})
+  public float dpi;
+
+  private BufferedImage image;
+  private PDDocument document;
+  private PDFRenderer renderer;
+  private final PixelBufferPool pool = new PixelBufferPool(256L * 1024 * 1024);
+
+  @Setup
+  public void setup() throws IOException {
+    document = Loader.loadPDF(Corpus.TEXT_HEAVY.file());
+    renderer = new PDFRenderer(document);
+    image = renderer.renderImageWithDPI(0, dpi);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException { document.close(); }
+
+  @Benchmark
+  public WritableImage toFXImage() { return SwingFXUtils.toFXImage(image, null); }
+
+  @Benchmark
+  public WritableImage renderAndCopy() throws IOException { return SwingFXUtils.toFXImage(renderer.renderImageWithDPI(0, dpi), null); }
+
+  @Benchmark
+  public WritableImage renderPooled() throws IOException {
+    return pool.render(renderer, document, 0, dpi / 72, image.getWidth(), image.getHeight(), 0, 0);
+  }
+}
@@ -0,0 +1,49 @@
+package com.goddard.goddardpdf.benchmarks;
+
+import com.goddard.goddardpdf.DocumentSource;
+import com.goddard.goddardpdf.DocumentWorkerPool;
+import com.goddard.goddardpdf.PageCache;
+import com.goddard.goddardpdf.PageRenderer;
+import com.goddard.goddardpdf.PixelBufferPool;
+import com.goddard.goddardpdf.RenderService;
+import javafx.scene.image.Image;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+  @Param({"TEXT_HEAVY", "IMAGE_HEAVY", "VECTOR_HEAVY"})
+  public Corpus corpus;
+
+  @Param({"72", "150", "300"})
+  public float dpi;
+
+  private PDDocument document;
+  private RenderService service;
+
+  @Setup
+  public void setup() throws IOException {
+    DocumentSource source = new DocumentSource(corpus.file(), true, 64L * 1024 * 1024);
+    document = source.open();
+    PageRenderer pages = new PageRenderer(document, new PageCache(0), null, new PixelBufferPool(256L * 1024 * 1024));
+    service = new RenderService(pages, new DocumentWorkerPool(source, 1, "render"));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    service.shutdown();
+    document.close();
+  }
+
+  @Benchmark
+  public Image renderPage() { return service.renderTransient(0, dpi / 72, DocumentWorkerPool.Priority.VISIBLE).join(); }
+}
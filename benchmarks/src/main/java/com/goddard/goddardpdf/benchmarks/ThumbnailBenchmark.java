@@ -0,0 +1,53 @@
+package com.goddard.goddardpdf.benchmarks;
+
+import com.goddard.goddardpdf.DocumentSource;
+import com.goddard.goddardpdf.DocumentWorkerPool;
+import com.goddard.goddardpdf.PageCache;
+import com.goddard.goddardpdf.PageRenderer;
+import com.goddard.goddardpdf.PixelBufferPool;
+import com.goddard.goddardpdf.RenderService;
+import com.goddard.goddardpdf.ThumbnailPipeline;
+import com.goddard.goddardpdf.ThumbnailView;
+import javafx.scene.image.Image;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThumbnailBenchmark {
+
+  @Param({"TEXT_HEAVY", "IMAGE_HEAVY", "VECTOR_HEAVY"})
+  public Corpus corpus;
+
+  private PDDocument document;
+  private RenderService service;
+  private ThumbnailPipeline pipeline;
+
+  @Setup
+  public void setup() throws IOException {
+    DocumentSource source = new DocumentSource(corpus.file(), true, 64L * 1024 * 1024);
+    document = source.open();
+    PageRenderer pages = new PageRenderer(document, new PageCache(0), null, new PixelBufferPool(64L * 1024 * 1024));
+    service = new RenderService(pages, new DocumentWorkerPool(source, 1, "render"));
+    pipeline = new ThumbnailPipeline(service, ThumbnailView.TILE_WIDTH);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    service.shutdown();
+    document.close();
+  }
+
+  @Benchmark
+  public Image fullPageThumbnail() { return service.renderTransient(0, 1, DocumentWorkerPool.Priority.THUMBNAIL).join(); }
+
+  @Benchmark
+  public Image tileSizedThumbnail() { return service.renderTransient(0, pipeline.getScale(0), DocumentWorkerPool.Priority.THUMBNAIL).join(); }
+}
@@ -0,0 +1,168 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchConverter {
+
+  private static final String USAGE = """
+    Usage: BatchConverter --format png|jpeg|txt|pdf [options] <file or directory>...
+      --output <dir>     directory for converted files (default: next to each input)
+      --dpi <dpi>        image resolution (default: 300)
+      --pages <ranges>   pages to convert, e.g. 1-10,15,20- (default: all)
+      --split            with pdf, write one file per page range
+      --workers <n>      render workers per file (default: available processors)
+      --jobs <n>         files converted concurrently (default: 1)
+      --heap-cap <mb>    scratch memory per document before spilling to temp files (default: 64)
+      --no-mmap          read documents through a buffered file instead of a memory map
+    Prints one JSON object per file with its timing.""";
+
+  private String format;
+  private File output;
+  private float dpi = 300;
+  private String pages;
+  private boolean split = false;
+  private int workers = Runtime.getRuntime().availableProcessors();
+  private int jobs = 1;
+  private long maxHeapBytes = 64L * 1024 * 1024;
+  private boolean memoryMapped = true;
+  private final List<File> inputs = new ArrayList<>();
+
+  public static void main(String[] args) throws InterruptedException {
+    System.setProperty("java.awt.headless", "true");
+
+    BatchConverter converter = new BatchConverter();
+    try {
+      converter.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+    System.exit(converter.run() ? 0 : 1);
+  }
+
+  private void parse(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--format" -> format = value(args, ++i).toUpperCase(Locale.ROOT);
+        case "--output" -> output = new File(value(args, ++i));
+        case "--dpi" -> dpi = Float.parseFloat(value(args, ++i));
+        case "--pages" -> pages = value(args, ++i);
+        case "--split" -> split = true;
+        case "--workers" -> workers = Math.max(1, Integer.parseInt(value(args, ++i)));
+        case "--jobs" -> jobs = Math.max(1, Integer.parseInt(value(args, ++i)));
+        case "--heap-cap" -> maxHeapBytes = Long.parseLong(value(args, ++i)) * 1024 * 1024;
+        case "--no-mmap" -> memoryMapped = false;
+        default -> {
+          if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option " + args[i]);
+          collect(new File(args[i]));
+        }
+      }
+    }
+    if (format == null || !List.of("PNG", "JPEG", "TXT", "PDF").contains(format)) throw new IllegalArgumentException("--format must be png, jpeg, txt or pdf");
+    if (inputs.isEmpty()) throw new IllegalArgumentException("No PDF files given");
+  }
+
+  private static String value(String[] args, int i) {
+    if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+    return args[i];
+  }
+
+  private void collect(File file) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children == null) return;
+      for (File child : children) collect(child);
+    } else if (file.getName().toLowerCase(Locale.ROOT).endsWith(".pdf")) inputs.add(file);
+    else if (!file.exists()) throw new IllegalArgumentException("No such file " + file);
+  }
+
+  private boolean run() throws InterruptedException {
+    if (output != null && !output.isDirectory() && !output.mkdirs()) {
+      System.err.println("Cannot create output directory " + output);
+      return false;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(jobs);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (File input : inputs) results.add(executor.submit(() -> convert(input)));
+    executor.shutdown();
+
+    boolean success = true;
+    for (Future<Boolean> result : results) {
+      try { success &= result.get(); } catch (ExecutionException e) {
+        System.err.println(e.getCause());
+        success = false;
+      }
+    }
+    return success;
+  }
+
+  private boolean convert(File input) {
+    String extension = format.toLowerCase(Locale.ROOT);
+    String baseName = input.getName().substring(0, input.getName().length() - ".pdf".length());
+    String suffix = format.equals("PDF") ? "_pages" : "";
+    File target = new File(output != null ? output : input.getAbsoluteFile().getParentFile(), baseName + suffix + "." + extension);
+    DocumentSource source = new DocumentSource(input, memoryMapped, maxHeapBytes);
+    AtomicInteger pages = new AtomicInteger();
+
+    long start = System.nanoTime();
+    String error = null;
+    try {
+      List<PageRange> ranges = null;
+      if (this.pages != null || format.equals("PDF")) {
+        int pageCount;
+        try (PDDocument document = source.open()) { pageCount = document.getNumberOfPages(); }
+        ranges = this.pages != null ? PageRange.parse(this.pages, pageCount) : PageRange.all(pageCount);
+      }
+
+      switch (format) {
+        case "TXT" -> new TextExporter(source, workers).export(target, ranges, (exported, total) -> pages.set(total));
+        case "PDF" -> new PdfSplitter(source, workers).export(target, ranges, split, (written, total) -> pages.set(total));
+        default -> new ImageExporter(source, workers, dpi, Runtime.getRuntime().maxMemory() / 4 / jobs)
+          .export(format, target, ranges, (exported, total, pagesPerSecond) -> pages.set(total));
+      }
+    } catch (IOException | RuntimeException e) {
+      error = e.getMessage() != null ? e.getMessage() : e.toString();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      error = "interrupted";
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    String line = String.format(Locale.ROOT, "{\"file\":%s,\"format\":\"%s\",\"status\":\"%s\",\"pages\":%d,\"millis\":%d,\"pagesPerSecond\":%.2f%s}",
+      quote(input.getPath()), extension, error == null ? "ok" : "failed", pages.get(), millis,
+      millis == 0 ? 0.0 : pages.get() * 1000.0 / millis, error == null ? "" : ",\"error\":" + quote(error));
+    synchronized (System.out) { System.out.println(line); }
+    return error == null;
+  }
+
+  private static String quote(String text) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char c : text.toCharArray()) {
+      switch (c) {
+        case '"' -> quoted.append("\\\"");
+        case '\\' -> quoted.append("\\\\");
+        case '\n' -> quoted.append("\\n");
+        case '\r' -> quoted.append("\\r");
+        case '\t' -> quoted.append("\\t");
+        default -> {
+          if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+          else quoted.append(c);
+        }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+}
@@ -0,0 +1,91 @@
+package com.goddard.goddardpdf;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class ContinuousScrollView extends ListView<Integer> {
+
+  private final PageRenderer renderer;
+  private final RenderScheduler scheduler;
+  private final float scale;
+  private final Consumer<IOException> onError;
+  private final List<PageCell> cells = new ArrayList<>();
+  private final RenderResolution resolution = new RenderResolution(36, 600, RenderResolution.DEFAULT_HYSTERESIS);
+
+  public ContinuousScrollView(PageRenderer renderer, RenderScheduler scheduler, float scale, Consumer<IOException> onError) {
+    this.renderer = renderer;
+    this.scheduler = scheduler;
+    this.scale = scale;
+    this.onError = onError;
+
+    ObservableList<Integer> pages = FXCollections.observableArrayList();
+    for (int i = 0; i < renderer.getPageCount(); i++) pages.add(i);
+    setItems(pages);
+    setCellFactory(list -> {
+      PageCell cell = new PageCell();
+      cells.add(cell);
+      return cell;
+    });
+  }
+
+  public void dispose() {
+    for (PageCell cell : cells) cell.cancel();
+  }
+
+  private class PageCell extends ListCell<Integer> {
+    private final ImageView pageView = new ImageView();
+    private final StackPane frame = new StackPane(pageView);
+    private Future<?> pending;
+
+    PageCell() {
+      pageView.setPreserveRatio(true);
+      frame.setStyle("-fx-background-color: white;");
+      setAlignment(Pos.CENTER);
+    }
+
+    private void cancel() {
+      if (pending != null) pending.cancel(false);
+      pending = null;
+    }
+
+    @Override
+    protected void updateItem(Integer pageIndex, boolean empty) {
+      super.updateItem(pageIndex, empty);
+      cancel();
+      pageView.setImage(null);
+
+      if (empty || pageIndex == null) {
+        setGraphic(null);
+        return;
+      }
+
+      double width = renderer.getPageWidth(pageIndex) * scale;
+      double height = renderer.getPageHeight(pageIndex) * scale;
+      frame.setMinSize(width, height);
+      frame.setPrefSize(width, height);
+      frame.setMaxSize(width, height);
+      pageView.setFitWidth(width);
+      setGraphic(frame);
+
+      double outputScale = getScene() != null && getScene().getWindow() != null ? getScene().getWindow().getOutputScaleX() : 1;
+      float renderScale = resolution.update(RenderResolution.neededDpi(72, scale, outputScale));
+      Image cached = renderer.getCached(pageIndex, renderScale);
+      if (cached != null) pageView.setImage(cached);
+      else pending = scheduler.render(pageIndex, renderScale, (index, image, imageScale) -> {
+        if (getItem() != null && getItem() == index) pageView.setImage(image);
+      }, onError);
+    }
+  }
+}
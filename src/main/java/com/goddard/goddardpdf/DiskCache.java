@@ -0,0 +1,197 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class DiskCache {
+
+  private static final String INDEX_FILE = "index.properties";
+  private static final int MAX_PENDING_WRITES = 8;
+
+  private final Path directory;
+  private final long maxBytes;
+  private final Properties index = new Properties();
+  private long currentBytes = -1;
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "disk-cache-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public DiskCache(Path directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    try (InputStream in = Files.newInputStream(directory.resolve(INDEX_FILE))) { index.load(in); } catch (IOException ignored) { }
+  }
+
+  public static Path defaultDirectory() {
+    String os = System.getProperty("os.name").toLowerCase();
+    String home = System.getProperty("user.home");
+    if (os.contains("win")) {
+      String localAppData = System.getenv("LOCALAPPDATA");
+      return Path.of(localAppData != null ? localAppData : home, "GoddardPDF", "cache");
+    }
+    if (os.contains("mac")) return Path.of(home, "Library", "Caches", "GoddardPDF");
+    String cacheHome = System.getenv("XDG_CACHE_HOME");
+    return (cacheHome != null && !cacheHome.isEmpty() ? Path.of(cacheHome) : Path.of(home, ".cache")).resolve("goddard-pdf");
+  }
+
+  public Document open(File file) { return new Document(file); }
+
+  public class Document {
+    private final File file;
+    private volatile String hash;
+    private boolean hashing = false;
+
+    private Document(File file) { this.file = file; }
+
+    public Image get(int pageIndex, float scale) {
+      if (hash == null) {
+        startHashing();
+        return null;
+      }
+      try {
+        Path path = pathOf(pageIndex, scale);
+        if (!Files.exists(path)) return null;
+        long start = Metrics.start();
+        Image image;
+        try (InputStream in = Files.newInputStream(path)) { image = new Image(in); }
+        Metrics.record("disk.read", start);
+        if (image.isError()) return null;
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        return image;
+      } catch (IOException e) { return null; }
+    }
+
+    public void put(int pageIndex, float scale, Image image) {
+      if (pendingWrites.incrementAndGet() > MAX_PENDING_WRITES) {
+        pendingWrites.decrementAndGet();
+        Metrics.count("disk.droppedWrites");
+        return;
+      }
+
+      int width = (int) image.getWidth();
+      int height = (int) image.getHeight();
+      int[] pixels = new int[width * height];
+      image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+      writer.execute(() -> {
+        long start = Metrics.start();
+        try {
+          BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+          copy.getRaster().setDataElements(0, 0, width, height, pixels);
+          Path path = pathOf(pageIndex, scale);
+          Files.createDirectories(path.getParent());
+          Path temp = Files.createTempFile(path.getParent(), "tile", ".tmp");
+          try (OutputStream out = Files.newOutputStream(temp)) { ImageIO.write(copy, "png", out); }
+          Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+          added(Files.size(path));
+          Metrics.record("disk.write", start);
+        } catch (IOException ignored) {
+        } finally { pendingWrites.decrementAndGet(); }
+      });
+    }
+
+    public Path path(String name) throws IOException { return directory.resolve(hash()).resolve(name); }
+
+    private Path pathOf(int pageIndex, float scale) throws IOException {
+      return directory.resolve(hash()).resolve(pageIndex + "-" + Integer.toHexString(Float.floatToIntBits(scale)) + ".png");
+    }
+
+    private synchronized String hash() throws IOException {
+      if (hash == null) hash = hashOf(file);
+      return hash;
+    }
+
+    private synchronized void startHashing() {
+      if (hashing) return;
+      hashing = true;
+      writer.execute(() -> {
+        try { hash(); } catch (IOException ignored) { }
+      });
+    }
+  }
+
+  private String hashOf(File file) throws IOException {
+    String path = file.getCanonicalPath();
+    String stamp = file.length() + ":" + file.lastModified();
+    synchronized (index) {
+      String known = index.getProperty(path);
+      if (known != null && known.startsWith(stamp + ":")) return known.substring(stamp.length() + 1);
+    }
+
+    MessageDigest digest;
+    try { digest = MessageDigest.getInstance("SHA-256"); } catch (NoSuchAlgorithmException e) { throw new IOException(e); }
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) { in.transferTo(OutputStream.nullOutputStream()); }
+    String hash = HexFormat.of().formatHex(digest.digest());
+
+    synchronized (index) {
+      String previous = index.getProperty(path);
+      index.setProperty(path, stamp + ":" + hash);
+      if (previous != null) {
+        String previousHash = previous.substring(previous.lastIndexOf(':') + 1);
+        boolean shared = index.values().stream().anyMatch(value -> value.toString().endsWith(":" + previousHash));
+        if (!shared) writer.execute(() -> deleteDirectory(directory.resolve(previousHash)));
+      }
+      Files.createDirectories(directory);
+      try (OutputStream out = Files.newOutputStream(directory.resolve(INDEX_FILE))) { index.store(out, null); }
+    }
+    return hash;
+  }
+
+  private void added(long bytes) throws IOException {
+    if (currentBytes < 0) currentBytes = sizeOfTiles();
+    else currentBytes += bytes;
+    if (currentBytes <= maxBytes) return;
+
+    List<Path> tiles = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.filter(path -> path.toString().endsWith(".png")).forEach(tiles::add);
+    }
+    tiles.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+    for (Path tile : tiles) {
+      if (currentBytes <= maxBytes * 9 / 10) break;
+      long size = Files.size(tile);
+      Files.deleteIfExists(tile);
+      currentBytes -= size;
+    }
+  }
+
+  private long sizeOfTiles() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(path -> path.toString().endsWith(".png")).mapToLong(path -> path.toFile().length()).sum();
+    }
+  }
+
+  private void deleteDirectory(Path path) {
+    try (Stream<Path> files = Files.walk(path)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try { Files.deleteIfExists(file); } catch (IOException ignored) { }
+      });
+    } catch (IOException ignored) { }
+  }
+}
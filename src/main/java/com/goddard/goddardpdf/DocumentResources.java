@@ -0,0 +1,255 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.filter.DecodeOptions;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.ResourceCache;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DocumentResources {
+
+  public static final long DEFAULT_MAX_BYTES = Runtime.getRuntime().maxMemory() / 16;
+  private static final int MAX_PINNED_RESOURCES = 256;
+  private static final AtomicLong totalBytes = new AtomicLong();
+
+  private static class SoftImage extends SoftReference<BufferedImage> {
+    final COSObjectKey key;
+
+    SoftImage(COSObjectKey key, BufferedImage image, ReferenceQueue<BufferedImage> queue) {
+      super(image, queue);
+      this.key = key;
+    }
+  }
+
+  private final long maxBytes;
+  private long currentBytes = 0;
+  private final LinkedHashMap<COSObjectKey, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<COSObjectKey, SoftImage> evicted = new HashMap<>();
+  private final ReferenceQueue<BufferedImage> cleared = new ReferenceQueue<>();
+  private final Map<COSObjectKey, CompletableFuture<BufferedImage>> decoding = new HashMap<>();
+
+  public DocumentResources(long maxBytes) { this.maxBytes = maxBytes; }
+
+  public ResourceCache newDocumentCache() { return new PinnedResourceCache(); }
+
+  public PDFRenderer newRenderer(PDDocument document) {
+    return new PDFRenderer(document) {
+      @Override
+      protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+        return new PageDrawer(parameters) {
+          @Override
+          public void drawImage(PDImage image) throws IOException {
+            super.drawImage(isShareable(image, getResources()) ? new SharedImage((PDImageXObject) image) : image);
+          }
+        };
+      }
+    };
+  }
+
+  public synchronized void trim() {
+    images.forEach((key, image) -> evicted.put(key, new SoftImage(key, image, cleared)));
+    images.clear();
+    totalBytes.addAndGet(-currentBytes);
+    currentBytes = 0;
+  }
+
+  public static long getTotalBytes() { return totalBytes.get(); }
+
+  private synchronized BufferedImage get(COSObjectKey key) {
+    purge();
+    BufferedImage image = images.get(key);
+    if (image != null) {
+      Metrics.count("resources.imageHits");
+      return image;
+    }
+
+    SoftImage soft = evicted.remove(key);
+    image = soft != null ? soft.get() : null;
+    if (image != null) {
+      Metrics.count("resources.softHits");
+      put(key, image);
+    }
+    return image;
+  }
+
+  private synchronized void put(COSObjectKey key, BufferedImage image) {
+    long size = sizeOf(image);
+    if (size > maxBytes) {
+      evicted.put(key, new SoftImage(key, image, cleared));
+      return;
+    }
+
+    BufferedImage previous = images.put(key, image);
+    long before = currentBytes;
+    if (previous != null) currentBytes -= sizeOf(previous);
+    currentBytes += size;
+
+    Iterator<Map.Entry<COSObjectKey, BufferedImage>> iterator = images.entrySet().iterator();
+    while (currentBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<COSObjectKey, BufferedImage> eldest = iterator.next();
+      if (eldest.getKey().equals(key)) continue;
+      currentBytes -= sizeOf(eldest.getValue());
+      evicted.put(eldest.getKey(), new SoftImage(eldest.getKey(), eldest.getValue(), cleared));
+      iterator.remove();
+    }
+    totalBytes.addAndGet(currentBytes - before);
+  }
+
+  private void purge() {
+    for (SoftImage soft; (soft = (SoftImage) cleared.poll()) != null; ) evicted.remove(soft.key, soft);
+  }
+
+  private static boolean isShareable(PDImage image, PDResources resources) {
+    if (!(image instanceof PDImageXObject xobject) || image.isStencil() || xobject.getOptionalContent() != null || xobject.getCOSObject().getKey() == null) return false;
+    COSName colorSpace = xobject.getCOSObject().getCOSName(COSName.COLORSPACE);
+    if (colorSpace == null) return true;
+    if (colorSpace.equals(COSName.DEVICERGB)) return !resources.hasColorSpace(COSName.DEFAULT_RGB);
+    if (colorSpace.equals(COSName.DEVICECMYK)) return !resources.hasColorSpace(COSName.DEFAULT_CMYK);
+    if (colorSpace.equals(COSName.DEVICEGRAY)) return !resources.hasColorSpace(COSName.DEFAULT_GRAY);
+    return false;
+  }
+
+  private static long sizeOf(BufferedImage image) {
+    return (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+  }
+
+  private class SharedImage implements PDImage {
+    private final PDImageXObject image;
+    private final COSObjectKey key;
+
+    SharedImage(PDImageXObject image) {
+      this.image = image;
+      this.key = image.getCOSObject().getKey();
+    }
+
+    @Override
+    public BufferedImage getImage() throws IOException { return getImage(null, 1); }
+
+    @Override
+    public BufferedImage getImage(Rectangle region, int subsampling) throws IOException {
+      if (region != null || subsampling != 1) return image.getImage(region, subsampling);
+
+      CompletableFuture<BufferedImage> pending;
+      synchronized (DocumentResources.this) {
+        BufferedImage shared = get(key);
+        if (shared != null) return shared;
+        pending = decoding.get(key);
+        if (pending == null) decoding.put(key, new CompletableFuture<>());
+      }
+      if (pending != null) {
+        try { return pending.join(); } catch (CompletionException e) { return image.getImage(); }
+      }
+
+      long start = Metrics.start();
+      try {
+        BufferedImage decoded = image.getImage();
+        Metrics.record("resources.imageDecode", start);
+        synchronized (DocumentResources.this) {
+          put(key, decoded);
+          decoding.remove(key).complete(decoded);
+        }
+        return decoded;
+      } catch (IOException | RuntimeException e) {
+        synchronized (DocumentResources.this) { decoding.remove(key).completeExceptionally(e); }
+        throw e;
+      }
+    }
+
+    @Override public WritableRaster getRawRaster() throws IOException { return image.getRawRaster(); }
+    @Override public BufferedImage getRawImage() throws IOException { return image.getRawImage(); }
+    @Override public BufferedImage getStencilImage(Paint paint) throws IOException { return image.getStencilImage(paint); }
+    @Override public InputStream createInputStream() throws IOException { return image.createInputStream(); }
+    @Override public InputStream createInputStream(List<String> stopFilters) throws IOException { return image.createInputStream(stopFilters); }
+    @Override public InputStream createInputStream(DecodeOptions options) throws IOException { return image.createInputStream(options); }
+    @Override public boolean isEmpty() { return image.isEmpty(); }
+    @Override public boolean isStencil() { return image.isStencil(); }
+    @Override public void setStencil(boolean isStencil) { image.setStencil(isStencil); }
+    @Override public int getBitsPerComponent() { return image.getBitsPerComponent(); }
+    @Override public void setBitsPerComponent(int bitsPerComponent) { image.setBitsPerComponent(bitsPerComponent); }
+    @Override public PDColorSpace getColorSpace() throws IOException { return image.getColorSpace(); }
+    @Override public void setColorSpace(PDColorSpace colorSpace) { image.setColorSpace(colorSpace); }
+    @Override public int getHeight() { return image.getHeight(); }
+    @Override public void setHeight(int height) { image.setHeight(height); }
+    @Override public int getWidth() { return image.getWidth(); }
+    @Override public void setWidth(int width) { image.setWidth(width); }
+    @Override public void setDecode(COSArray decode) { image.setDecode(decode); }
+    @Override public COSArray getDecode() { return image.getDecode(); }
+    @Override public boolean getInterpolate() { return image.getInterpolate(); }
+    @Override public void setInterpolate(boolean value) { image.setInterpolate(value); }
+    @Override public String getSuffix() { return image.getSuffix(); }
+    @Override public COSDictionary getCOSObject() { return image.getCOSObject(); }
+  }
+
+  private static class SoftLru<V> {
+    private final Map<COSObject, SoftReference<V>> evicted = new HashMap<>();
+    private final LinkedHashMap<COSObject, V> entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<COSObject, V> eldest) {
+        if (size() <= MAX_PINNED_RESOURCES) return false;
+        if (evicted.size() >= MAX_PINNED_RESOURCES) evicted.values().removeIf(reference -> reference.get() == null);
+        evicted.put(eldest.getKey(), new SoftReference<>(eldest.getValue()));
+        return true;
+      }
+    };
+
+    V get(COSObject indirect) {
+      V value = entries.get(indirect);
+      if (value != null) return value;
+      SoftReference<V> soft = evicted.remove(indirect);
+      value = soft != null ? soft.get() : null;
+      if (value != null) entries.put(indirect, value);
+      return value;
+    }
+
+    void put(COSObject indirect, V value) {
+      evicted.remove(indirect);
+      entries.put(indirect, value);
+    }
+  }
+
+  private static class PinnedResourceCache extends DefaultResourceCache {
+    private final SoftLru<PDFont> fonts = new SoftLru<>();
+    private final SoftLru<PDColorSpace> colorSpaces = new SoftLru<>();
+
+    @Override
+    public PDFont getFont(COSObject indirect) { return fonts.get(indirect); }
+
+    @Override
+    public void put(COSObject indirect, PDFont font) { fonts.put(indirect, font); }
+
+    @Override
+    public PDColorSpace getColorSpace(COSObject indirect) { return colorSpaces.get(indirect); }
+
+    @Override
+    public void put(COSObject indirect, PDColorSpace colorSpace) { colorSpaces.put(indirect, colorSpace); }
+  }
+}
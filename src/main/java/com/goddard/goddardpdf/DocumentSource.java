@@ -0,0 +1,40 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+
+public record DocumentSource(File file, boolean memoryMapped, long maxHeapBytes, DocumentResources resources) {
+
+  public static final long UNLIMITED_HEAP = -1;
+
+  public DocumentSource(File file, boolean memoryMapped, long maxHeapBytes) {
+    this(file, memoryMapped, maxHeapBytes, new DocumentResources(DocumentResources.DEFAULT_MAX_BYTES));
+  }
+
+  public PDDocument open() throws IOException {
+    RandomAccessRead input = memoryMapped && file.length() <= Integer.MAX_VALUE
+      ? new RandomAccessReadMemoryMappedFile(file)
+      : new RandomAccessReadBufferedFile(file);
+
+    MemoryUsageSetting scratch;
+    if (maxHeapBytes == UNLIMITED_HEAP) scratch = MemoryUsageSetting.setupMainMemoryOnly();
+    else if (maxHeapBytes == 0) scratch = MemoryUsageSetting.setupTempFileOnly();
+    else scratch = MemoryUsageSetting.setupMixed(maxHeapBytes);
+
+    try {
+      PDDocument document = Loader.loadPDF(input, scratch.streamCache);
+      document.setResourceCache(resources.newDocumentCache());
+      return document;
+    } catch (IOException e) {
+      input.close();
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,480 @@
+package com.goddard.goddardpdf;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+public class DocumentTab extends Tab {
+
+  private static final float PAGE_DPI = 300;
+  private static final float BASE_DPI = 72;
+  private static final double MAX_ZOOM = 2;
+  private static final int PREFETCH_DISTANCE = 2;
+
+  private final DocumentSource documentSource;
+  private final PageCache pageCache;
+  private final DiskCache diskCache;
+  private final PixelBufferPool pixelBufferPool;
+  private final ThreadPoolExecutor renderExecutor;
+  private final Runnable onViewModeChanged;
+
+  private PDDocument document;
+  private PageRenderer pageRenderer;
+  private RenderService renderService;
+  private RenderScheduler renderScheduler;
+  private TaskScope documentScope = new TaskScope();
+  private TaskScope viewScope = new TaskScope();
+  private SearchIndex searchIndex;
+  private String searchQuery;
+  private List<SearchIndex.Hit> searchHits = List.of();
+  private int searchHit = -1;
+  private int searchIndexedPages = 0;
+  private int currentPage = 0;
+  private long firstPageStart = 0;
+  private Runnable deferredWork;
+  private String viewMode = "Page by Page";
+  private boolean active = false;
+  private boolean closed = false;
+
+  private final BorderPane root = new BorderPane();
+  private TiledPageView pageView;
+  private ThumbnailView thumbnailView;
+  private Button prevButton;
+  private Button nextButton;
+  private Spinner<Integer> pageSelect;
+  private TextField searchField;
+  private Label searchStatus;
+  public Slider zoom;
+
+  public DocumentTab(DocumentSource source, PageCache pageCache, DiskCache diskCache, PixelBufferPool pixelBufferPool,
+                     ThreadPoolExecutor renderExecutor, Runnable onViewModeChanged) {
+    super(source.file().getName());
+    this.documentSource = source;
+    this.pageCache = pageCache;
+    this.diskCache = diskCache;
+    this.pixelBufferPool = pixelBufferPool;
+    this.renderExecutor = renderExecutor;
+    this.onViewModeChanged = onViewModeChanged;
+
+    setTooltip(new Tooltip(source.file().getPath()));
+    setContent(root);
+    root.setCenter(new Label("Opening " + source.file().getName() + "..."));
+    setOnClosed(event -> close());
+  }
+
+  public void open() {
+    long openStart = Metrics.start();
+    File file = documentSource.file();
+
+    new Thread(() -> {
+      PDDocument opened;
+      try { opened = documentSource.open(); } catch (IOException e) {
+        openFailed(file, e);
+        return;
+      }
+
+      RenderService service = null;
+      try {
+        DiskCache.Document diskDocument = diskCache.open(file);
+        PageRenderer renderer = new PageRenderer(opened, pageCache, diskDocument, pixelBufferPool);
+        service = new RenderService(renderer, new DocumentWorkerPool(documentSource, "render", renderExecutor));
+        service.render(0, BASE_DPI / 72, DocumentWorkerPool.Priority.VISIBLE);
+        service.measureAll();
+        renderer.getPageWidth(0);
+        Metrics.record("open", openStart);
+        RenderService opening = service;
+        Platform.runLater(() -> {
+          if (!closed) install(opened, diskDocument, renderer, opening, openStart);
+          else {
+            opening.shutdown();
+            try { opened.close(); } catch (IOException ignored) { }
+          }
+        });
+      } catch (RuntimeException e) {
+        if (service != null) service.shutdown();
+        try { opened.close(); } catch (IOException ignored) { }
+        openFailed(file, e);
+      }
+    }, "open").start();
+  }
+
+  private void openFailed(File file, Exception e) {
+    Platform.runLater(() -> {
+      if (closed) return;
+      root.setCenter(new Label("Failed to open " + file.getName()));
+      Main.showError("Failed to open PDF", e.getMessage());
+    });
+  }
+
+  public boolean isLoaded() { return document != null; }
+
+  public String getViewMode() { return viewMode; }
+
+  public File getFile() { return documentSource.file(); }
+
+  public void setActive(boolean active) {
+    this.active = active;
+    if (document == null) return;
+
+    renderService.getPool().setSuspended(!active);
+    searchIndex.setSuspended(!active);
+    if (active) pageCache.setActive(document);
+    else documentSource.resources().trim();
+    Metrics.count(active ? "tabs.activated" : "tabs.suspended");
+  }
+
+  private void install(PDDocument opened, DiskCache.Document diskDocument, PageRenderer renderer, RenderService service, long openStart) {
+    document = opened;
+    pageRenderer = renderer;
+    renderService = service;
+    renderScheduler = new RenderScheduler(renderService, PREFETCH_DISTANCE);
+    searchIndex = new SearchIndex(documentSource, document.getNumberOfPages(), diskDocument, renderExecutor);
+
+    TaskScope scope = new TaskScope();
+    RenderScheduler scheduler = renderScheduler;
+    SearchIndex index = searchIndex;
+    scope.onClose(() -> pageCache.invalidate(opened));
+    scope.onClose(scheduler::shutdown);
+    scope.onClose(index::close);
+    scope.join(renderService.whenTerminated());
+    scope.join(index.whenTerminated());
+    documentScope = scope;
+
+    firstPageStart = openStart;
+    deferredWork = () -> index.start((indexed, total) -> {
+      if (indexed % 25 == 0 || indexed == total) Platform.runLater(scope.guard(this::updateSearchStatus));
+    });
+
+    setActive(active);
+    setViewMode("Page by Page");
+  }
+
+  public void setViewMode(String mode) {
+    if (document == null) return;
+    viewMode = mode;
+    resetViewScope();
+    runDeferredWork();
+
+    switch (mode) {
+      case "Page by Page" -> pageByPage();
+      case "Slideshow" -> slideshow();
+      case "Thumbnails" -> thumbnails();
+      case "Continuous Scroll" -> continuousScroll();
+    }
+    onViewModeChanged.run();
+  }
+
+  private void pageByPage() {
+    HBox controls = new HBox(10);
+    controls.setPadding(new Insets(10));
+    controls.setAlignment(Pos.CENTER_LEFT);
+
+    prevButton = new Button("Previous Page");
+    nextButton = new Button("Next Page");
+    pageSelect = new Spinner<>(1, document.getNumberOfPages(), 1);
+    pageSelect.setEditable(true);
+    pageSelect.setPrefWidth(90);
+    Label pageCount = new Label("/ " + document.getNumberOfPages());
+    zoom = new Slider(0f, MAX_ZOOM, 0.5f);
+    searchField = new TextField(searchQuery);
+    searchField.setPromptText("Search");
+    searchStatus = new Label();
+
+    pageView = new TiledPageView(pageRenderer, renderScheduler, PAGE_DPI, BASE_DPI, e -> Main.showError("Failed to render page", e.getMessage()));
+    ZoomableScrollPane scrollPane = new ZoomableScrollPane(pageView, zoom);
+    scrollPane.maxScale = MAX_ZOOM;
+    pageView.attach(scrollPane);
+    viewScope.onClose(pageView::dispose);
+    root.setCenter(scrollPane);
+
+    zoom.valueProperty().addListener(
+      (observable, oldValue, newValue) -> {
+        scrollPane.scaleValue = (double) newValue;
+        scrollPane.updateScale();
+      }
+    );
+
+    prevButton.setOnAction(e -> showPage(currentPage - 1));
+    nextButton.setOnAction(e -> showPage(currentPage + 1));
+    pageSelect.valueProperty().addListener((observable, oldValue, newValue) -> {
+      if (newValue != null && newValue - 1 != currentPage) showPage(newValue - 1);
+    });
+
+    searchField.setOnAction(e -> search(searchField.getText()));
+
+    controls.getChildren().addAll(prevButton, nextButton, pageSelect, pageCount, zoom, searchField, searchStatus);
+
+    root.setBottom(controls);
+
+    currentPage = 0;
+    updateSearchStatus();
+    showPage(currentPage);
+  }
+
+  private void slideshow() {
+    int startPage = currentPage;
+    viewMode = "Page by Page";
+    pageByPage();
+
+    Slideshow slideshow = new Slideshow(getTabPane().getScene().getWindow(), renderService, startPage, this::showPage, e -> Main.showError("Failed to render slide", e.getMessage()));
+    viewScope.onClose(slideshow::close);
+    slideshow.show();
+  }
+
+  private void thumbnails() {
+    root.setBottom(null);
+    if (!pageRenderer.whenMeasured().isDone()) {
+      root.setCenter(new Label("Measuring pages..."));
+      TaskScope scope = viewScope;
+      pageRenderer.whenMeasured().thenRun(() -> Platform.runLater(scope.guard(this::thumbnails)));
+      return;
+    }
+
+    ThumbnailPipeline pipeline = new ThumbnailPipeline(renderService, ThumbnailView.TILE_WIDTH);
+    viewScope.onClose(pipeline::shutdown);
+    thumbnailView = new ThumbnailView(pipeline, pageRenderer, index -> {
+      setViewMode("Page by Page");
+      showPage(index);
+    }, e -> Main.showError("Failed to render page", e.getMessage()));
+    root.setCenter(thumbnailView);
+  }
+
+  private void resetViewScope() {
+    thumbnailView = null;
+    viewScope.close();
+    viewScope = new TaskScope();
+    RenderScheduler scheduler = renderScheduler;
+    viewScope.onClose(scheduler::cancel);
+  }
+
+  private void continuousScroll() {
+    root.setBottom(null);
+
+    ContinuousScrollView scrollView = new ContinuousScrollView(pageRenderer, renderScheduler, 1, e -> Main.showError("Failed to render page", e.getMessage()));
+    viewScope.onClose(scrollView::dispose);
+    root.setCenter(scrollView);
+  }
+
+  private void firstPageShown() {
+    if (firstPageStart != 0) Metrics.record("open.timeToFirstPage", firstPageStart);
+    firstPageStart = 0;
+    runDeferredWork();
+  }
+
+  private void runDeferredWork() {
+    Runnable work = deferredWork;
+    deferredWork = null;
+    if (work != null) work.run();
+  }
+
+  private void close() {
+    closed = true;
+    documentSource.resources().trim();
+    deferredWork = null;
+    firstPageStart = 0;
+    viewScope.close();
+    PDDocument previous = document;
+    document = null;
+    if (previous == null) return;
+    documentScope.closeAsync().whenComplete((result, error) -> {
+      try { previous.close(); } catch (IOException ignored) { }
+    });
+  }
+
+  private void showPage(int pageIndex) {
+    if (document == null || pageIndex < 0 || pageIndex >= document.getNumberOfPages()) return;
+
+    currentPage = pageIndex;
+    nextButton.setDisable(currentPage + 1 == document.getNumberOfPages());
+    prevButton.setDisable(currentPage == 0);
+    pageSelect.getValueFactory().setValue(pageIndex + 1);
+
+    TiledPageView view = pageView;
+    view.setPage(pageIndex);
+    view.setHighlights(searchHits, searchHit >= 0 ? searchHits.get(searchHit) : null);
+    renderScheduler.request(pageIndex, BASE_DPI / 72, (index, image, scale) -> {
+      view.setBaseImage(index, image);
+      if (scale == BASE_DPI / 72) firstPageShown();
+    }, e -> Main.showError("Failed to render page", e.getMessage()));
+  }
+
+  private void search(String query) {
+    if (searchIndex == null) return;
+
+    int indexed = searchIndex.getIndexedPages();
+    if (!query.equals(searchQuery) || indexed != searchIndexedPages) {
+      if (!query.equals(searchQuery)) searchHit = -1;
+      searchQuery = query;
+      searchIndexedPages = indexed;
+      searchHits = searchIndex.search(query);
+    }
+
+    if (searchHits.isEmpty()) {
+      searchHit = -1;
+      pageView.setHighlights(searchHits, null);
+    } else {
+      searchHit = (searchHit + 1) % searchHits.size();
+      SearchIndex.Hit hit = searchHits.get(searchHit);
+      if (hit.pageIndex() != currentPage) showPage(hit.pageIndex());
+      else pageView.setHighlights(searchHits, hit);
+    }
+    updateSearchStatus();
+  }
+
+  private void updateSearchStatus() {
+    if (searchStatus == null || searchIndex == null) return;
+
+    String status = searchQuery == null || searchQuery.isBlank() ? "" : searchHits.isEmpty() ? "No matches" : (searchHit + 1) + " of " + searchHits.size();
+    int indexed = searchIndex.getIndexedPages();
+    if (indexed < searchIndex.getPageCount()) status += (status.isEmpty() ? "" : " ") + "(indexed " + indexed + " of " + searchIndex.getPageCount() + " pages)";
+    int failed = searchIndex.getFailedPages();
+    if (failed > 0) status += (status.isEmpty() ? "" : " ") + "(" + failed + (failed == 1 ? " page" : " pages") + " could not be indexed)";
+    searchStatus.setText(status);
+  }
+
+  public void save() {
+    File file = chooseFile("PDF");
+    if (file == null) return;
+
+    PdfSaver saver = new PdfSaver(documentSource);
+    ProgressDialog progressDialog = new ProgressDialog("Save Progress", "Saving...", saver::cancel);
+    progressDialog.show();
+    Runnable unregister = documentScope.onClose(saver::cancel);
+
+    new Thread(() -> {
+      try {
+        PdfSaver.Mode mode = saver.save(file, (saveMode, written, expected) -> {
+          String progressText = String.format("%s: %.1f MB written", switch (saveMode) {
+            case COPY -> "Copy";
+            case INCREMENTAL -> "Incremental update";
+            case FULL -> "Full rewrite";
+          }, written / (1024.0 * 1024));
+          Platform.runLater(() -> progressDialog.update(Math.min(1, (double) written / expected), progressText));
+        });
+        Platform.runLater(() -> {
+          progressDialog.close();
+          if (saver.isCancelled()) Main.showInfo("Save cancelled.");
+          else Main.showInfo(mode == PdfSaver.Mode.INCREMENTAL ? "PDF saved as an incremental update." : "PDF saved successfully!");
+        });
+      } catch (IOException e) {
+        Platform.runLater(() -> {
+          progressDialog.close();
+          Main.showError("Failed to save PDF", e.getMessage());
+        });
+      } finally { unregister.run(); }
+    }, "save").start();
+  }
+
+  private File chooseFile(String fileType) {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
+    fileChooser.getExtensionFilters().add(
+      new FileChooser.ExtensionFilter(fileType + " Files", "*." + fileType.toLowerCase())
+    );
+
+    return fileChooser.showSaveDialog(null);
+  }
+
+  public void export(String fileType) {
+    int[] selectedPages = thumbnailView != null ? thumbnailView.getSelectedPages() : new int[0];
+    PageRangeDialog.Selection selection = new PageRangeDialog("Export " + fileType, document.getNumberOfPages(), currentPage, selectedPages, fileType.equals("PDF"))
+      .showAndWait().orElse(null);
+    if (selection == null) return;
+    List<PageRange> ranges = selection.ranges();
+
+    File file = chooseFile(fileType);
+    if (file == null) return;
+
+    switch (fileType) {
+      case "PNG", "JPEG" -> {
+        ImageExporter exporter = new ImageExporter(documentSource, renderService.getPool(), PAGE_DPI, Runtime.getRuntime().maxMemory() / 4);
+        ProgressDialog progressDialog = new ProgressDialog("Export Progress", "0 out of 0 exported", exporter::cancel);
+        progressDialog.show();
+        Runnable unregister = documentScope.onClose(exporter::cancel);
+
+        new Thread(() -> {
+          try {
+            exporter.export(fileType, file, ranges, (exported, total, pagesPerSecond) -> {
+              String progressText = String.format("%d out of %d exported (%.1f pages/s)", exported, total, pagesPerSecond);
+              Platform.runLater(() -> progressDialog.update((double) exported / total, progressText));
+            });
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showInfo(exporter.isCancelled() ? "Export cancelled." : "Images exported successfully!");
+            });
+          } catch (IOException | InterruptedException e) {
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showError("Failed to export images", e.getMessage());
+            });
+          } finally { unregister.run(); }
+        }, "export").start();
+      }
+      case "TXT" -> {
+        TextExporter exporter = new TextExporter(documentSource, renderService.getPool());
+        ProgressDialog progressDialog = new ProgressDialog("Export Progress", "0 out of 0 pages exported", exporter::cancel);
+        progressDialog.show();
+        Runnable unregister = documentScope.onClose(exporter::cancel);
+
+        new Thread(() -> {
+          try {
+            exporter.export(file, ranges, (exported, total) -> {
+              String progressText = exported + " out of " + total + " pages exported";
+              Platform.runLater(() -> progressDialog.update((double) exported / total, progressText));
+            });
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showInfo(exporter.isCancelled() ? "Export cancelled." : "Text exported successfully!");
+            });
+          } catch (IOException | InterruptedException e) {
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showError("Failed to export TXT", e.getMessage());
+            });
+          } finally { unregister.run(); }
+        }, "export").start();
+      }
+      case "PDF" -> {
+        PdfSplitter splitter = new PdfSplitter(documentSource, renderService.getPool());
+        ProgressDialog progressDialog = new ProgressDialog("Export Progress", "0 out of 0 pages written", splitter::cancel);
+        progressDialog.show();
+        Runnable unregister = documentScope.onClose(splitter::cancel);
+
+        new Thread(() -> {
+          try {
+            List<File> files = splitter.export(file, ranges, selection.split(), (written, total) -> {
+              String progressText = written + " out of " + total + " pages written";
+              Platform.runLater(() -> progressDialog.update((double) written / total, progressText));
+            });
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showInfo(splitter.isCancelled() ? "Export cancelled." : files.size() == 1 ? "PDF exported successfully!" : files.size() + " PDFs exported successfully!");
+            });
+          } catch (IOException | InterruptedException e) {
+            Platform.runLater(() -> {
+              progressDialog.close();
+              Main.showError("Failed to export PDF", e.getMessage());
+            });
+          } finally { unregister.run(); }
+        }, "export").start();
+      }
+    }
+  }
+}
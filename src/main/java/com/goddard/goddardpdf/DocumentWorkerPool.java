@@ -0,0 +1,233 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DocumentWorkerPool {
+
+  public interface Job<T> { T run(PDDocument document, PDFRenderer renderer) throws IOException; }
+
+  public enum Priority { VISIBLE, PREFETCH, THUMBNAIL, EXPORT }
+
+  private record Handle(PDDocument document, PDFRenderer renderer) {}
+
+  private class Task<T> implements Runnable, Comparable<Task<?>> {
+    private final Priority priority;
+    private final long order = sequence.getAndIncrement();
+    private final long submitted = Metrics.start();
+    private final Job<T> job;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private Task(Priority priority, Job<T> job) {
+      this.priority = priority;
+      this.job = job;
+    }
+
+    private DocumentWorkerPool pool() { return DocumentWorkerPool.this; }
+
+    @Override
+    public void run() {
+      try {
+        if (result.isDone()) return;
+        long started = Metrics.start();
+        Metrics.record(name + ".wait", submitted);
+        Handle handle = null;
+        try {
+          handle = borrowHandle();
+          result.complete(job.run(handle.document(), handle.renderer()));
+        } catch (Throwable e) { result.completeExceptionally(e); }
+        finally { if (handle != null) returnHandle(handle); }
+        Metrics.record(name + "." + priority.name().toLowerCase(Locale.ROOT), started);
+      } finally { finished(this); }
+    }
+
+    @Override
+    public int compareTo(Task<?> other) {
+      int byPriority = priority.compareTo(other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+    }
+  }
+
+  private static final long IDLE_SECONDS = 30;
+  private static final AtomicLong sequence = new AtomicLong();
+  private static final Set<DocumentWorkerPool> live = ConcurrentHashMap.newKeySet();
+
+  private final DocumentSource source;
+  private final String name;
+  private final ThreadPoolExecutor executor;
+  private final boolean ownsExecutor;
+  private final List<Task<?>> held = new ArrayList<>();
+  private final Set<Task<?>> outstanding = new HashSet<>();
+  private final Deque<Handle> idleHandles = new ArrayDeque<>();
+  private final List<Handle> handles = new ArrayList<>();
+  private boolean suspended = false;
+  private boolean shutdown = false;
+  private final CompletableFuture<Void> termination = new CompletableFuture<>();
+
+  public DocumentWorkerPool(DocumentSource source, int workers, String name) { this(source, name, newExecutor(name, workers), true); }
+
+  public DocumentWorkerPool(DocumentSource source, String name, ThreadPoolExecutor executor) { this(source, name, executor, false); }
+
+  private DocumentWorkerPool(DocumentSource source, String name, ThreadPoolExecutor executor, boolean ownsExecutor) {
+    this.source = source;
+    this.name = name;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+    live.add(this);
+    Metrics.gauge(name + ".queueDepth", () -> queueDepth(name));
+  }
+
+  public static ThreadPoolExecutor newExecutor(String name, int threads) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  public <T> CompletableFuture<T> submit(Priority priority, Job<T> job) {
+    Task<T> task = new Task<>(priority, job);
+    synchronized (held) {
+      if (shutdown) {
+        task.result.cancel(false);
+        return task.result;
+      }
+      outstanding.add(task);
+      if (suspended && isSpeculative(priority)) held.add(task);
+      else execute(task);
+    }
+    task.result.whenComplete((value, error) -> {
+      if (!task.result.isCancelled()) return;
+      boolean removed = executor.remove(task);
+      synchronized (held) { removed |= held.remove(task); }
+      if (removed) finished(task);
+    });
+    return task.result;
+  }
+
+  public void setSuspended(boolean suspended) {
+    synchronized (held) {
+      if (suspended == this.suspended) return;
+      this.suspended = suspended;
+      if (suspended) {
+        for (Runnable queued : executor.getQueue().toArray(new Runnable[0])) {
+          if (queued instanceof Task<?> task && task.pool() == this && isSpeculative(task.priority) && executor.remove(task)) held.add(task);
+        }
+        while (idleHandles.size() > 1) closeHandle(idleHandles.pop());
+      } else {
+        List<Task<?>> resumed = new ArrayList<>(held);
+        held.clear();
+        resumed.forEach(this::execute);
+      }
+    }
+  }
+
+  public int getWorkers() { return executor.getMaximumPoolSize(); }
+
+  public CompletableFuture<Void> whenTerminated() { return termination; }
+
+  public void shutdown() {
+    synchronized (held) {
+      shutdown = true;
+      terminateIfIdle();
+    }
+  }
+
+  public void shutdownNow() {
+    List<Task<?>> cancelled = new ArrayList<>();
+    synchronized (held) {
+      shutdown = true;
+      for (Runnable queued : executor.getQueue().toArray(new Runnable[0])) {
+        if (queued instanceof Task<?> task && task.pool() == this && executor.remove(task)) cancelled.add(task);
+      }
+      cancelled.addAll(held);
+      held.clear();
+    }
+    for (Task<?> task : cancelled) {
+      task.result.cancel(false);
+      finished(task);
+    }
+    synchronized (held) { terminateIfIdle(); }
+  }
+
+  private void execute(Task<?> task) {
+    try { executor.execute(task); } catch (RejectedExecutionException e) {
+      outstanding.remove(task);
+      task.result.cancel(false);
+    }
+  }
+
+  private void finished(Task<?> task) {
+    synchronized (held) {
+      if (outstanding.remove(task)) terminateIfIdle();
+    }
+  }
+
+  private void terminateIfIdle() {
+    if (!shutdown || !outstanding.isEmpty() || termination.isDone()) return;
+    handles.forEach(this::closeDocument);
+    handles.clear();
+    idleHandles.clear();
+    live.remove(this);
+    if (ownsExecutor) executor.shutdown();
+    termination.complete(null);
+  }
+
+  private static long queueDepth(String name) {
+    long depth = 0;
+    for (DocumentWorkerPool pool : live) {
+      if (!pool.name.equals(name)) continue;
+      for (Runnable queued : pool.executor.getQueue().toArray(new Runnable[0])) {
+        if (queued instanceof Task<?> task && task.pool() == pool) depth++;
+      }
+    }
+    return depth;
+  }
+
+  private static boolean isSpeculative(Priority priority) { return priority == Priority.PREFETCH || priority == Priority.THUMBNAIL; }
+
+  private Handle borrowHandle() throws IOException {
+    synchronized (held) {
+      Handle handle = idleHandles.poll();
+      if (handle != null) return handle;
+    }
+    PDDocument document = source.open();
+    Handle handle = new Handle(document, source.resources().newRenderer(document));
+    synchronized (held) { handles.add(handle); }
+    return handle;
+  }
+
+  private void returnHandle(Handle handle) {
+    synchronized (held) {
+      if (suspended && !idleHandles.isEmpty()) closeHandle(handle);
+      else idleHandles.push(handle);
+    }
+  }
+
+  private void closeHandle(Handle handle) {
+    handles.remove(handle);
+    closeDocument(handle);
+  }
+
+  private void closeDocument(Handle handle) {
+    try { handle.document().close(); } catch (IOException ignored) { }
+  }
+}
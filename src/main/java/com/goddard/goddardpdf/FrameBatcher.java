@@ -0,0 +1,51 @@
+package com.goddard.goddardpdf;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class FrameBatcher implements Executor {
+
+  private static final long FRAME_BUDGET_NANOS = 8_000_000;
+
+  private final Queue<Runnable> updates = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private volatile boolean stopped = false;
+  private final AnimationTimer timer = new AnimationTimer() {
+    @Override
+    public void handle(long now) { drain(); }
+  };
+
+  @Override
+  public void execute(Runnable update) {
+    if (stopped) return;
+    updates.add(update);
+    if (scheduled.compareAndSet(false, true)) Platform.runLater(timer::start);
+  }
+
+  public void stop() {
+    stopped = true;
+    updates.clear();
+    Platform.runLater(timer::stop);
+  }
+
+  private void drain() {
+    long start = Metrics.start();
+    long deadline = start + FRAME_BUDGET_NANOS;
+    Runnable update;
+    while (System.nanoTime() < deadline && (update = updates.poll()) != null) {
+      update.run();
+      Metrics.count("fx.updates");
+    }
+    Metrics.record("fx.batch", start);
+    if (!updates.isEmpty()) return;
+
+    timer.stop();
+    scheduled.set(false);
+    if (!updates.isEmpty() && scheduled.compareAndSet(false, true)) timer.start();
+  }
+}
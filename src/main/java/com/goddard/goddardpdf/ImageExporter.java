@@ -0,0 +1,139 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ImageExporter {
+
+  public interface Listener { void progress(int exported, int total, double pagesPerSecond); }
+
+  private final DocumentSource source;
+  private final DocumentWorkerPool sharedRenderers;
+  private final int workers;
+  private final float dpi;
+  private final long memoryBudget;
+  private volatile boolean cancelled = false;
+
+  public ImageExporter(DocumentSource source, int workers, float dpi, long memoryBudget) {
+    this(source, null, workers, dpi, memoryBudget);
+  }
+
+  public ImageExporter(DocumentSource source, DocumentWorkerPool renderers, float dpi, long memoryBudget) {
+    this(source, renderers, renderers.getWorkers(), dpi, memoryBudget);
+  }
+
+  private ImageExporter(DocumentSource source, DocumentWorkerPool sharedRenderers, int workers, float dpi, long memoryBudget) {
+    this.source = source;
+    this.sharedRenderers = sharedRenderers;
+    this.workers = workers;
+    this.dpi = dpi;
+    this.memoryBudget = memoryBudget;
+  }
+
+  public void cancel() { cancelled = true; }
+
+  public boolean isCancelled() { return cancelled; }
+
+  public void export(String format, File target, Listener listener) throws IOException, InterruptedException {
+    export(format, target, null, listener);
+  }
+
+  public void export(String format, File target, List<PageRange> ranges, Listener listener) throws IOException, InterruptedException {
+    int[] pages;
+    int numPages;
+    long imageBytes;
+    try (PDDocument document = source.open()) {
+      if (document.getNumberOfPages() == 0) return;
+      pages = PageRange.pages(ranges != null ? ranges : PageRange.all(document.getNumberOfPages()));
+      numPages = pages.length;
+      PDRectangle box = document.getPage(pages[0]).getCropBox();
+      imageBytes = (long) (box.getWidth() * dpi / 72) * (long) (box.getHeight() * dpi / 72) * 4;
+    }
+
+    int maxInFlight = (int) Math.max(1, Math.min(workers * 2L, memoryBudget / Math.max(1, imageBytes)));
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    AtomicInteger exported = new AtomicInteger();
+    AtomicReference<IOException> failure = new AtomicReference<>();
+    Queue<File> written = new ConcurrentLinkedQueue<>();
+    long start = System.nanoTime();
+
+    String extension = format.toLowerCase();
+    String baseName = target.getName().replace("." + extension, "");
+
+    DocumentWorkerPool renderers = sharedRenderers != null ? sharedRenderers : new DocumentWorkerPool(source, workers, "export-render");
+    ExecutorService encoders = Executors.newFixedThreadPool(workers, runnable -> {
+      Thread thread = new Thread(runnable, "export-encode");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    try {
+      for (int i = 0; i < numPages; i++) {
+        inFlight.acquire();
+        if (cancelled || failure.get() != null) {
+          inFlight.release();
+          break;
+        }
+
+        int pageIndex = pages[i];
+        renderers.submit(DocumentWorkerPool.Priority.EXPORT, (document, renderer) -> {
+          if (cancelled || failure.get() != null) return null;
+          return renderer.renderImageWithDPI(pageIndex, dpi);
+        }).whenComplete((image, error) -> {
+          if (error != null || image == null) {
+            if (isCancellation(error)) cancelled = true;
+            else if (error != null) failure.compareAndSet(null, asIOException(error));
+            inFlight.release();
+            return;
+          }
+          encoders.execute(() -> {
+            try {
+              if (cancelled || failure.get() != null) return;
+              File imageFile = new File(target.getParent(), baseName + "_" + (pageIndex + 1) + "." + extension);
+              written.add(imageFile);
+              long encodeStart = Metrics.start();
+              if (!ImageIO.write(image, extension, imageFile)) throw new IOException("No image writer for " + format);
+              Metrics.record("export.encode", encodeStart);
+              int done = exported.incrementAndGet();
+              listener.progress(done, numPages, done / ((System.nanoTime() - start) / 1e9));
+            } catch (IOException | RuntimeException e) {
+              failure.compareAndSet(null, asIOException(e));
+            } finally { inFlight.release(); }
+          });
+        });
+      }
+      inFlight.acquire(maxInFlight);
+    } finally {
+      if (renderers != sharedRenderers) renderers.shutdown();
+      encoders.shutdown();
+    }
+
+    if (cancelled || failure.get() != null) for (File file : written) file.delete();
+    if (failure.get() != null) throw failure.get();
+    Metrics.record("export." + extension, start);
+  }
+
+  private static boolean isCancellation(Throwable error) {
+    return error instanceof CancellationException || error instanceof CompletionException && error.getCause() instanceof CancellationException;
+  }
+
+  private static IOException asIOException(Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+    return error instanceof IOException e ? e : new IOException(error.getMessage(), error);
+  }
+}
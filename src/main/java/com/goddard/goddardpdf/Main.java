@@ -1,51 +1,48 @@
 package com.goddard.goddardpdf;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.Button;
-import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javafx.stage.Modality;
-import javafx.stage.WindowEvent;
+import javafx.util.Duration;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.text.PDFTextStripper;
-
-import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
-import java.util.Objects;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class Main extends Application {
 
-  private PDDocument document;
-  private int currentPage = 0;
+  private static final int RENDER_WORKERS = Runtime.getRuntime().availableProcessors();
+
+  private static final long DISK_CACHE_BYTES = 512L * 1024 * 1024;
+
+  private final PageCache pageCache = new PageCache(Runtime.getRuntime().maxMemory() / 4);
+  private final PixelBufferPool pixelBufferPool = new PixelBufferPool(Runtime.getRuntime().maxMemory() / 8);
+  private final DiskCache diskCache = new DiskCache(DiskCache.defaultDirectory(), DISK_CACHE_BYTES);
+  private final ThreadPoolExecutor renderExecutor = DocumentWorkerPool.newExecutor("render", RENDER_WORKERS);
+
+  private boolean memoryMapped = true;
+  private long maxHeapBytes = 64L * 1024 * 1024;
 
   private BorderPane root;
-  private ImageView pdfView;
-  private Button prevButton;
-  private Button nextButton;
-  private ChoiceBox<String> pageSelect;
-  public Slider zoom;
+  private final TabPane tabs = new TabPane();
   private Stage primaryStage;
+  private Label metricsOverlay;
+  private final Timeline metricsRefresh = new Timeline(new KeyFrame(Duration.millis(500), event -> updateMetricsOverlay()));
 
   private Menu view;
   private MenuItem save;
@@ -61,8 +58,33 @@ public class Main extends Application {
 
     MenuBar menuBar = getMenuItems();
     root.setTop(menuBar);
-
-    primaryStage.setScene(new Scene(root, 800, 600));
+    root.setCenter(tabs);
+    tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
+    tabs.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) -> {
+      if (oldTab != null) ((DocumentTab) oldTab).setActive(false);
+      if (newTab != null) ((DocumentTab) newTab).setActive(true);
+      updateMenus();
+    });
+
+    Metrics.registerMBean();
+    Metrics.gauge("cache.memoryBytes", pageCache::getCurrentBytes);
+    Metrics.gauge("resources.imageBytes", DocumentResources::getTotalBytes);
+    Metrics.gauge("pixelPool.pooledBytes", pixelBufferPool::getPooledBytes);
+    Metrics.gauge("tabs.open", () -> tabs.getTabs().size());
+    Metrics.gauge("render.idleWorkers", () -> RENDER_WORKERS - renderExecutor.getActiveCount());
+    String metricsLog = System.getProperty("goddardpdf.metricsLog");
+    if (metricsLog != null) Metrics.startLog(Path.of(metricsLog), 1000);
+
+    metricsOverlay = new Label();
+    metricsOverlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.7); -fx-text-fill: white; -fx-font-family: monospace; -fx-padding: 6;");
+    metricsOverlay.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+    metricsOverlay.setMouseTransparent(true);
+    metricsOverlay.setVisible(false);
+    StackPane.setAlignment(metricsOverlay, Pos.TOP_RIGHT);
+    StackPane.setMargin(metricsOverlay, new Insets(40, 10, 0, 0));
+    metricsRefresh.setCycleCount(Animation.INDEFINITE);
+
+    primaryStage.setScene(new Scene(new StackPane(root, metricsOverlay), 800, 600));
     primaryStage.show();
   }
 
@@ -72,6 +94,7 @@ public class Main extends Application {
     Menu help = new Menu("Help");
 
     MenuItem open = new MenuItem("Open");
+    Menu loading = getLoadingMenu();
     save = new MenuItem("Save");
     export = new Menu("Export");
     MenuItem exit = new MenuItem("Exit");
@@ -82,12 +105,13 @@ public class Main extends Application {
     MenuItem exportPng = new MenuItem("PNG");
     MenuItem exportJpeg = new MenuItem("JPEG");
     MenuItem exportTxt = new MenuItem("TXT");
+    MenuItem exportPdf = new MenuItem("PDF");
 
-    export.getItems().addAll(exportPng, exportJpeg, exportTxt);
-    export.getItems().forEach(item -> item.setOnAction(actionEvent -> export(item.getText())));
+    export.getItems().addAll(exportPng, exportJpeg, exportTxt, exportPdf);
+    export.getItems().forEach(item -> item.setOnAction(actionEvent -> selectedTab().export(item.getText())));
 
     open.setOnAction(actionEvent -> openPDF());
-    save.setOnAction(actionEvent -> export("PDF"));
+    save.setOnAction(actionEvent -> selectedTab().save());
     exit.setOnAction(actionEvent -> Platform.exit());
 
     CheckMenuItem pageByPage = new CheckMenuItem("Page by Page");
@@ -96,234 +120,103 @@ public class Main extends Application {
     CheckMenuItem scroll = new CheckMenuItem("Continuous Scroll");
 
     MenuItem about = new MenuItem("About");
+    CheckMenuItem performance = new CheckMenuItem("Performance Overlay");
+    performance.setOnAction(actionEvent -> showMetrics(performance.isSelected()));
 
     about.setOnAction(actionEvent -> showInfo("Goddard PDF v0.1\nCopyright © 2024 Kummin König Ludwig Gorgonzola"));
 
-    file.getItems().addAll(open, save, export, exit);
+    file.getItems().addAll(open, loading, save, export, exit);
     view.getItems().addAll(pageByPage, slideshow, thumbnails, scroll);
-    help.getItems().addAll(about);
+    help.getItems().addAll(performance, about);
 
     pageByPage.setSelected(true);
     view.getItems().forEach(item -> item.setDisable(true));
-    view.getItems().forEach(item -> item.setOnAction(actionEvent -> setViewMode(item.getText(), view)));
+    view.getItems().forEach(item -> item.setOnAction(actionEvent -> selectedTab().setViewMode(item.getText())));
 
     return new MenuBar(file, view, help);
   }
 
-  private void setViewMode(String mode, Menu view) {
-    view.getItems().forEach(item -> { if (!Objects.equals(item.getText(), mode)) ((CheckMenuItem) item).setSelected(false); });
-
-    switch (mode) {
-      case "Page by Page" -> pageByPage();
-      case "Slideshow" -> slideshow();
-      case "Thumbnails" -> thumbnails();
-      case "Continuous Scroll" -> continuousScroll();
+  private Menu getLoadingMenu() {
+    Menu loading = new Menu("Loading");
+
+    ToggleGroup access = new ToggleGroup();
+    RadioMenuItem mapped = new RadioMenuItem("Memory-Mapped");
+    RadioMenuItem buffered = new RadioMenuItem("Temp-File Backed");
+    mapped.setToggleGroup(access);
+    buffered.setToggleGroup(access);
+    mapped.setSelected(memoryMapped);
+    buffered.setSelected(!memoryMapped);
+    mapped.setOnAction(actionEvent -> memoryMapped = true);
+    buffered.setOnAction(actionEvent -> memoryMapped = false);
+    loading.getItems().addAll(mapped, buffered, new SeparatorMenuItem());
+
+    ToggleGroup heapCap = new ToggleGroup();
+    long[] caps = {16L * 1024 * 1024, 64L * 1024 * 1024, 256L * 1024 * 1024, DocumentSource.UNLIMITED_HEAP};
+    for (long cap : caps) {
+      RadioMenuItem item = new RadioMenuItem(cap == DocumentSource.UNLIMITED_HEAP ? "Heap Cap: Unlimited" : "Heap Cap: " + cap / (1024 * 1024) + " MB");
+      item.setToggleGroup(heapCap);
+      item.setSelected(cap == maxHeapBytes);
+      item.setOnAction(actionEvent -> maxHeapBytes = cap);
+      loading.getItems().add(item);
     }
-  }
-
-  private void pageByPage() {
-    HBox controls = new HBox(10);
-    controls.setPadding(new Insets(10));
-    controls.setAlignment(Pos.CENTER_LEFT);
-
-    ObservableList<String> pageSelectContents = FXCollections.observableArrayList();
-
-    prevButton = new Button("Previous Page");
-    nextButton = new Button("Next Page");
-    pageSelect = new ChoiceBox<>(pageSelectContents);
-    zoom = new Slider(0f, 1f, 0.5f);
-
-    pdfView = new ImageView();
-    pdfView.setPreserveRatio(true);
-    ZoomableScrollPane scrollPane = new ZoomableScrollPane(pdfView, zoom);
-    root.setCenter(scrollPane);
-
-    zoom.valueProperty().addListener(
-      (observable, oldValue, newValue) -> {
-        scrollPane.scaleValue = (double) newValue;
-        scrollPane.updateScale();
-      }
-    );
-
-    prevButton.setOnAction(e -> showPage(currentPage - 1, true));
-    nextButton.setOnAction(e -> showPage(currentPage + 1, true));
-    pageSelect.setOnAction(e -> showPage(pageSelect.getSelectionModel().getSelectedIndex(), true));
-
-    controls.getChildren().addAll(prevButton, nextButton, pageSelect, zoom);
-
-    root.setBottom(controls);
-
-    currentPage = 0;
-    save.setDisable(false);
-    export.setDisable(false);
-    pageSelectContents.clear();
-    for (int i = 0; i < document.getNumberOfPages(); i++) pageSelectContents.add(Integer.toString(i + 1));
-    pageSelect.getSelectionModel().selectFirst();
-    showPage(currentPage, true);
-  }
-
-  private void slideshow() {
-    root.setBottom(null);
-    pdfView = new ImageView();
-    pdfView.setPreserveRatio(true);
-
-    ScrollPane pane = new ScrollPane(pdfView);
-    root.setCenter(pane);
-
-    currentPage = 0;
-    save.setDisable(false);
-    export.setDisable(false);
-    showPage(currentPage, false);
-  }
-
-  private void thumbnails() {
-    root.setBottom(null);
-    pdfView.setImage(null);
-
-    GridPane gridPane = new GridPane();
-    ScrollPane main = new ScrollPane(gridPane);
-    main.setFitToWidth(true);
-    main.setFitToHeight(true);
-    root.setCenter(main);
-
-    loadThumbnails(gridPane);
 
-    primaryStage.widthProperty().addListener((observable) -> repositionThumbnails(gridPane));
-
-    save.setDisable(false);
-    export.setDisable(false);
+    return loading;
   }
 
-  private void loadThumbnails(GridPane gridPane) {
-    PDFRenderer renderer = new PDFRenderer(document);
-    int numPages = document.getNumberOfPages();
-
-    final boolean[] taskRunning = {true};
-
-    Task<Void> loadImagesTask = new Task<>() {
-      @Override
-      protected Void call() {
-        for (int i = 0; i < numPages; i++) {
-          if (isCancelled()) break;
-          try {
-            BufferedImage image = renderer.renderImage(i);
-            javafx.scene.image.Image fxImage = SwingFXUtils.toFXImage(image, null);
-
-            final int index = i;
-            Platform.runLater(() -> {
-              ImageView pageView = new ImageView(fxImage);
-              pageView.setPreserveRatio(true);
-              gridPane.getChildren().add(pageView);
-              repositionThumbnails(gridPane);
-
-              String selectedStyle = "-fx-effect: dropshadow(gaussian, #0d98ba, 10, 0.5, 0, 0);";
-
-              pageView.setOnMouseClicked(event -> {
-                if (event.getClickCount() == 2) {
-                  if (!taskRunning[0]) {
-                    setViewMode("Page by Page", view);
-                    showPage(index, true);
-                  }
-                } else if (event.getClickCount() == 1) {
-                  if (!taskRunning[0]) {
-                    gridPane.getChildren().forEach(node -> node.setStyle(""));
-                    pageView.setStyle(selectedStyle);
-                    pageView.toFront();
-                  }
-                }
-              });
-            });
-          } catch (IOException e) { Platform.runLater(() -> showError("Failed to open PDF", e.getMessage())); }
-        }
-        taskRunning[0] = false;
-        return null;
-      }
-    };
-
-    new Thread(loadImagesTask).start();
-  }
-
-  private void repositionThumbnails(GridPane gridPane) {
-    int numPages = document.getNumberOfPages();
-    double availableWidth = primaryStage.getWidth() - 35;
-    int columns = Math.max(1, (int) (availableWidth / 200));
-    double newWidth = availableWidth / columns;
-
-    for (int i = 0; i < Math.min(gridPane.getChildren().size(), numPages); i++) {
-      ImageView pageView = (ImageView) gridPane.getChildren().get(i);
-      pageView.setFitWidth(newWidth);
-      GridPane.setColumnIndex(pageView, i % columns);
-      GridPane.setRowIndex(pageView, i / columns);
-    }
-  }
-
-  private void continuousScroll() {
-    root.setBottom(null);
-    pdfView.setImage(null);
-
-    VBox pageBox = new VBox();
-    ScrollPane main = new ScrollPane(pageBox);
-
-    root.setCenter(main);
-
-    PDFRenderer renderer = new PDFRenderer(document);
-    int numPages = document.getNumberOfPages();
-
-    Task<Void> loadImagesTask = new Task<>() {
-      @Override
-      protected Void call() {
-        for (int i = 0; i < numPages; i++) {
-          if (isCancelled()) break;
-          try {
-            BufferedImage image = renderer.renderImage(i);
-            javafx.scene.image.Image fxImage = SwingFXUtils.toFXImage(image, null);
-
-            Platform.runLater(() -> {
-              ImageView pageView = new ImageView(fxImage);
-              pageView.setPreserveRatio(true);
-              pageBox.getChildren().add(pageView);
-            });
-          } catch (IOException e) { Platform.runLater(() -> showError("Failed to open PDF", e.getMessage())); }
-        }
-        return null;
-      }
-    };
-
-    new Thread(loadImagesTask).start();
+  private DocumentTab selectedTab() { return (DocumentTab) tabs.getSelectionModel().getSelectedItem(); }
+
+  private void updateMenus() {
+    DocumentTab tab = selectedTab();
+    boolean loaded = tab != null && tab.isLoaded();
+    view.getItems().forEach(item -> {
+      item.setDisable(!loaded);
+      ((CheckMenuItem) item).setSelected(loaded && item.getText().equals(tab.getViewMode()));
+    });
+    save.setDisable(!loaded);
+    export.setDisable(!loaded);
+    primaryStage.setTitle(tab != null ? tab.getFile().getName() : "Goddard PDF");
   }
 
   private void openPDF() {
     FileChooser fileChooser = new FileChooser();
     fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Files", "*.pdf"));
     File file = fileChooser.showOpenDialog(primaryStage);
+    if (file == null) return;
 
-    if (file != null) {
-      view.getItems().forEach(item -> item.setDisable(false));
-      try {
-        document = PDDocument.load(file);
-        primaryStage.setTitle(file.getName());
-        pageByPage();
-      } catch (IOException e) { showError("Failed to open PDF", e.getMessage()); }
-    }
+    DocumentTab tab = new DocumentTab(new DocumentSource(file, memoryMapped, maxHeapBytes), pageCache, diskCache, pixelBufferPool,
+      renderExecutor, this::updateMenus);
+    tabs.getTabs().add(tab);
+    tabs.getSelectionModel().select(tab);
+    tab.open();
   }
 
-  private void showPage(int pageIndex, boolean pageByPage) {
-    if (document == null || pageIndex < 0 || pageIndex >= document.getNumberOfPages()) return;
-
-    try {
-      PDFRenderer renderer = new PDFRenderer(document);
-      BufferedImage image = renderer.renderImageWithDPI(pageIndex, 300);
-      pdfView.setImage(SwingFXUtils.toFXImage(image, null));
-      currentPage = pageIndex;
-      if (pageByPage) {
-        nextButton.setDisable(currentPage + 1 == document.getNumberOfPages());
-        prevButton.setDisable(currentPage == 0);
-        pageSelect.getSelectionModel().select(pageIndex);
+  private void showMetrics(boolean show) {
+    metricsOverlay.setVisible(show);
+    if (show) {
+      updateMetricsOverlay();
+      metricsRefresh.play();
+    } else metricsRefresh.stop();
+  }
+
+  private void updateMetricsOverlay() {
+    Map<String, Double> snapshot = Metrics.snapshot();
+    StringBuilder text = new StringBuilder();
+    snapshot.forEach((name, value) -> {
+      if (name.endsWith(".meanMillis")) {
+        String timer = name.substring(0, name.length() - ".meanMillis".length());
+        text.append(String.format(Locale.ROOT, "%-24s %8.1f ms avg %8.1f max %7d%n", timer, value,
+          snapshot.get(timer + ".maxMillis"), snapshot.get(timer + ".count").longValue()));
       }
-    } catch (IOException e) { showError("Failed to render page", e.getMessage()); }
+    });
+    snapshot.forEach((name, value) -> {
+      if (name.endsWith("Bytes")) text.append(String.format(Locale.ROOT, "%-24s %8.1f MB%n", name, value / (1024 * 1024)));
+      else if (name.endsWith("Rate")) text.append(String.format(Locale.ROOT, "%-24s %8.1f %%%n", name, value * 100));
+      else if (!name.endsWith("Millis") && !name.endsWith(".count")) text.append(String.format(Locale.ROOT, "%-24s %8d%n", name, value.longValue()));
+    });
+    metricsOverlay.setText(text.toString().stripTrailing());
   }
 
-  private void showError(String message, String error) {
+  static void showError(String message, String error) {
     TextArea stackTrace = new TextArea(error);
     stackTrace.setEditable(false);
     stackTrace.setMaxWidth(Double.MAX_VALUE);
@@ -340,77 +233,7 @@ public class Main extends Application {
     alert.showAndWait();
   }
 
-
-  private void export(String fileType) {
-    FileChooser fileChooser = new FileChooser();
-    fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
-    fileChooser.getExtensionFilters().add(
-      new FileChooser.ExtensionFilter(fileType + " Files", "*." + fileType.toLowerCase())
-    );
-
-    File file = fileChooser.showSaveDialog(null);
-    if (file == null) return;
-
-    switch (fileType) {
-      case "PDF" -> {
-        try {
-          document.save(file);
-          showInfo("PDF exported successfully!");
-        } catch (IOException e) { showError("Failed to export PDF", e.getMessage()); }
-      }
-      case "PNG", "JPEG" -> {
-        Stage progressStage = new Stage();
-        Label progressLabel = new Label("0 out of 0 exported");
-        ProgressBar progressBar = new ProgressBar(0);
-        VBox progressBox = new VBox(10, progressLabel, progressBar);
-        progressBox.setPadding(new Insets(10));
-        progressStage.setScene(new Scene(progressBox));
-        progressStage.initModality(Modality.APPLICATION_MODAL);
-        progressStage.setTitle("Export Progress");
-        progressStage.setOnCloseRequest(WindowEvent::consume);
-        progressStage.show();
-
-        PDFRenderer renderer = new PDFRenderer(document);
-        int numPages = document.getNumberOfPages();
-        new Thread(() -> {
-          for (int i = 0; i < numPages; i++) {
-            try {
-              BufferedImage image = renderer.renderImageWithDPI(i, 300);
-              File imageFile = new File(file.getParent(), file.getName().replace("." + fileType.toLowerCase(), "") + "_" + (i + 1) + "." + fileType.toLowerCase());
-              javax.imageio.ImageIO.write(image, fileType.toLowerCase(), imageFile);
-              final double progress = (double) (i + 1) / numPages;
-              final String progressText = (i + 1) + " out of " + numPages + " exported";
-              Platform.runLater(() -> {
-                progressBar.setProgress(progress);
-                progressLabel.setText(progressText);
-              });
-            } catch (IOException e) {
-              Platform.runLater(() -> {
-                showError("Failed to export images", e.getMessage());
-                progressStage.close();
-              });
-              return;
-            }
-          }
-          Platform.runLater(() -> {
-            showInfo("Images exported successfully!");
-            progressStage.close();
-          });
-        }).start();
-      }
-      case "TXT" -> {
-        StringBuilder textContent = new StringBuilder();
-        try {
-          int pages = document.getNumberOfPages();
-          for (int i = 0; i < pages; i++) { textContent.append(new PDFTextStripper().getText(document)); }
-          Files.write(file.toPath(), textContent.toString().getBytes());
-          showInfo("Text exported successfully!");
-        } catch (IOException e) { showError("Failed to export TXT", e.getMessage()); }
-      }
-    }
-  }
-
-  private void showInfo(String message) {
+  static void showInfo(String message) {
     Alert alert = new Alert(Alert.AlertType.INFORMATION);
     alert.setHeaderText(null);
     alert.setContentText(message);
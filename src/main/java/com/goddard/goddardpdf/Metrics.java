@@ -0,0 +1,111 @@
+package com.goddard.goddardpdf;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public final class Metrics {
+
+  public interface SnapshotMXBean {
+    Map<String, Double> getSnapshot();
+    void reset();
+  }
+
+  private record Timer(LongAdder count, LongAdder totalNanos, LongAccumulator maxNanos) {
+    Timer() { this(new LongAdder(), new LongAdder(), new LongAccumulator(Long::max, 0)); }
+  }
+
+  private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+  private Metrics() { }
+
+  public static long start() { return System.nanoTime(); }
+
+  public static void record(String name, long startNanos) {
+    long elapsed = System.nanoTime() - startNanos;
+    Timer timer = timers.computeIfAbsent(name, key -> new Timer());
+    timer.count().increment();
+    timer.totalNanos().add(elapsed);
+    timer.maxNanos().accumulate(elapsed);
+  }
+
+  public static void count(String name) { counters.computeIfAbsent(name, key -> new LongAdder()).increment(); }
+
+  public static void gauge(String name, LongSupplier value) { gauges.put(name, value); }
+
+  public static void reset() {
+    timers.clear();
+    counters.clear();
+  }
+
+  public static Map<String, Double> snapshot() {
+    Map<String, Double> snapshot = new TreeMap<>();
+    timers.forEach((name, timer) -> {
+      long count = timer.count().sum();
+      snapshot.put(name + ".count", (double) count);
+      snapshot.put(name + ".meanMillis", count == 0 ? 0 : timer.totalNanos().sum() / 1e6 / count);
+      snapshot.put(name + ".maxMillis", timer.maxNanos().get() / 1e6);
+    });
+    counters.forEach((name, counter) -> snapshot.put(name, (double) counter.sum()));
+    gauges.forEach((name, gauge) -> snapshot.put(name, (double) gauge.getAsLong()));
+
+    double hits = snapshot.getOrDefault("cache.memoryHits", 0.0) + snapshot.getOrDefault("cache.diskHits", 0.0);
+    double lookups = hits + snapshot.getOrDefault("cache.misses", 0.0);
+    snapshot.put("cache.hitRate", lookups == 0 ? 0 : hits / lookups);
+    Runtime runtime = Runtime.getRuntime();
+    snapshot.put("heap.usedBytes", (double) (runtime.totalMemory() - runtime.freeMemory()));
+    snapshot.put("heap.maxBytes", (double) runtime.maxMemory());
+    return snapshot;
+  }
+
+  public static String toJson(Map<String, Double> snapshot) {
+    StringBuilder json = new StringBuilder("{\"time\":").append(System.currentTimeMillis());
+    snapshot.forEach((name, value) -> json.append(",\"").append(name).append("\":")
+      .append(value == Math.rint(value) ? Long.toString(value.longValue()) : String.format(Locale.ROOT, "%.3f", value)));
+    return json.append('}').toString();
+  }
+
+  public static void registerMBean() {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(new SnapshotMXBean() {
+        @Override
+        public Map<String, Double> getSnapshot() { return snapshot(); }
+
+        @Override
+        public void reset() { Metrics.reset(); }
+      }, new ObjectName("com.goddard.goddardpdf:type=Metrics"));
+    } catch (JMException ignored) { }
+  }
+
+  public static void startLog(Path file, long intervalMillis) {
+    ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "metrics-log");
+      thread.setDaemon(true);
+      return thread;
+    });
+    logger.scheduleAtFixedRate(() -> {
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        writer.write(toJson(snapshot()));
+        writer.write('\n');
+      } catch (IOException ignored) { }
+    }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+}
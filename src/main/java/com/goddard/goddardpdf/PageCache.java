@@ -0,0 +1,65 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PageCache {
+
+  public record Key(Object document, int pageIndex, float scale, int column, int row) {
+    public Key(Object document, int pageIndex, float scale) { this(document, pageIndex, scale, -1, -1); }
+  }
+
+  private final long maxBytes;
+  private long currentBytes = 0;
+  private final LinkedHashMap<Key, Image> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private Object activeDocument;
+
+  public PageCache(long maxBytes) { this.maxBytes = maxBytes; }
+
+  public synchronized Image get(Key key) { return entries.get(key); }
+
+  public synchronized void put(Key key, Image image) {
+    long size = sizeOf(image);
+    if (size > maxBytes) return;
+
+    Image previous = entries.put(key, image);
+    if (previous != null) currentBytes -= sizeOf(previous);
+    currentBytes += size;
+
+    if (activeDocument != null) evict(key, true);
+    evict(key, false);
+  }
+
+  public synchronized void setActive(Object document) { activeDocument = document; }
+
+  private void evict(Key keep, boolean inactiveOnly) {
+    Iterator<Map.Entry<Key, Image>> iterator = entries.entrySet().iterator();
+    while (currentBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<Key, Image> eldest = iterator.next();
+      if (eldest.getKey().equals(keep) || inactiveOnly && eldest.getKey().document() == activeDocument) continue;
+      currentBytes -= sizeOf(eldest.getValue());
+      iterator.remove();
+    }
+  }
+
+  public synchronized void invalidate(Object document) {
+    if (activeDocument == document) activeDocument = null;
+    Iterator<Map.Entry<Key, Image>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, Image> entry = iterator.next();
+      if (entry.getKey().document() == document) {
+        currentBytes -= sizeOf(entry.getValue());
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized long getCurrentBytes() { return currentBytes; }
+
+  public long getMaxBytes() { return maxBytes; }
+
+  private static long sizeOf(Image image) { return (long) image.getWidth() * (long) image.getHeight() * 4; }
+}
@@ -0,0 +1,53 @@
+package com.goddard.goddardpdf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public record PageRange(int first, int last) {
+
+  public static List<PageRange> all(int pageCount) { return List.of(new PageRange(0, pageCount - 1)); }
+
+  public static List<PageRange> parse(String text, int pageCount) {
+    List<PageRange> ranges = new ArrayList<>();
+    for (String part : text.split(",")) {
+      part = part.strip();
+      if (part.isEmpty()) continue;
+      int dash = part.indexOf('-');
+      try {
+        int first = Integer.parseInt((dash < 0 ? part : part.substring(0, dash)).strip());
+        int last = dash < 0 ? first : dash == part.length() - 1 ? pageCount : Integer.parseInt(part.substring(dash + 1).strip());
+        if (first < 1 || last > pageCount || first > last) throw new IllegalArgumentException("Page range " + part + " is outside 1-" + pageCount);
+        ranges.add(new PageRange(first - 1, last - 1));
+      } catch (NumberFormatException e) { throw new IllegalArgumentException("Invalid page range " + part); }
+    }
+    if (ranges.isEmpty()) throw new IllegalArgumentException("No pages given");
+    return ranges;
+  }
+
+  public static List<PageRange> of(int[] pages) {
+    int[] sorted = Arrays.stream(pages).sorted().distinct().toArray();
+    List<PageRange> ranges = new ArrayList<>();
+    for (int i = 0; i < sorted.length; i++) {
+      int first = sorted[i];
+      while (i + 1 < sorted.length && sorted[i + 1] == sorted[i] + 1) i++;
+      ranges.add(new PageRange(first, sorted[i]));
+    }
+    return ranges;
+  }
+
+  public static int[] pages(List<PageRange> ranges) {
+    return ranges.stream().flatMapToInt(range -> Arrays.stream(range.pages())).toArray();
+  }
+
+  public int[] pages() {
+    int[] pages = new int[last - first + 1];
+    for (int i = 0; i < pages.length; i++) pages[i] = first + i;
+    return pages;
+  }
+
+  public int size() { return last - first + 1; }
+
+  @Override
+  public String toString() { return first == last ? Integer.toString(first + 1) : (first + 1) + "-" + (last + 1); }
+}
@@ -0,0 +1,66 @@
+package com.goddard.goddardpdf;
+
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+
+public class PageRangeDialog extends Dialog<PageRangeDialog.Selection> {
+
+  public record Selection(List<PageRange> ranges, boolean split) { }
+
+  public PageRangeDialog(String title, int pageCount, int currentPage, int[] selectedPages, boolean allowSplit) {
+    setTitle(title);
+    setHeaderText("Pages to export");
+
+    ToggleGroup group = new ToggleGroup();
+    RadioButton all = new RadioButton("All pages (1-" + pageCount + ")");
+    RadioButton current = new RadioButton("Current page (" + (currentPage + 1) + ")");
+    RadioButton selected = new RadioButton("Selected thumbnails (" + PageRange.of(selectedPages).stream().map(PageRange::toString).reduce((a, b) -> a + "," + b).orElse("none") + ")");
+    RadioButton custom = new RadioButton("Pages:");
+    TextField rangeField = new TextField();
+    rangeField.setPromptText("e.g. 1-10,15,20-");
+    CheckBox split = new CheckBox("Write one PDF per range");
+    Label error = new Label();
+    error.setStyle("-fx-text-fill: #c00;");
+
+    List.of(all, current, selected, custom).forEach(button -> button.setToggleGroup(group));
+    selected.setDisable(selectedPages.length == 0);
+    (selectedPages.length > 0 ? selected : all).setSelected(true);
+    rangeField.disableProperty().bind(custom.selectedProperty().not());
+    rangeField.textProperty().addListener(observable -> error.setText(""));
+    split.setVisible(allowSplit);
+    split.setManaged(allowSplit);
+
+    VBox content = new VBox(8, all, current, selected, custom, rangeField, split, error);
+    content.setPadding(new Insets(10));
+    getDialogPane().setContent(content);
+    getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+    getDialogPane().lookupButton(ButtonType.OK).addEventFilter(ActionEvent.ACTION, event -> {
+      if (!custom.isSelected()) return;
+      try { PageRange.parse(rangeField.getText(), pageCount); } catch (IllegalArgumentException e) {
+        error.setText(e.getMessage());
+        event.consume();
+      }
+    });
+
+    setResultConverter(button -> {
+      if (button != ButtonType.OK) return null;
+      List<PageRange> ranges;
+      if (current.isSelected()) ranges = List.of(new PageRange(currentPage, currentPage));
+      else if (selected.isSelected()) ranges = PageRange.of(selectedPages);
+      else if (custom.isSelected()) ranges = PageRange.parse(rangeField.getText(), pageCount);
+      else ranges = PageRange.all(pageCount);
+      return new Selection(ranges, allowSplit && split.isSelected());
+    });
+  }
+}
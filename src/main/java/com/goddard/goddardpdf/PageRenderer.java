@@ -0,0 +1,163 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+
+public class PageRenderer {
+
+  private static final int MAX_TREE_DEPTH = 64;
+
+  private final PDDocument document;
+  private final PageCache cache;
+  private final DiskCache.Document diskCache;
+  private final PixelBufferPool pixels;
+  private final float[] pageWidths;
+  private final float[] pageHeights;
+  private final BitSet measured = new BitSet();
+  private final CompletableFuture<Void> allMeasured = new CompletableFuture<>();
+
+  public PageRenderer(PDDocument document, PageCache cache, DiskCache.Document diskCache, PixelBufferPool pixels) {
+    this.document = document;
+    this.cache = cache;
+    this.diskCache = diskCache;
+    this.pixels = pixels;
+
+    int numPages = document.getNumberOfPages();
+    pageWidths = new float[numPages];
+    pageHeights = new float[numPages];
+  }
+
+  public int getPageCount() { return pageWidths.length; }
+
+  public float getPageWidth(int pageIndex) {
+    measure(document, pageIndex);
+    return pageWidths[pageIndex];
+  }
+
+  public float getPageHeight(int pageIndex) {
+    measure(document, pageIndex);
+    return pageHeights[pageIndex];
+  }
+
+  public CompletableFuture<Void> whenMeasured() { return allMeasured; }
+
+  public void measureAll(PDDocument source) {
+    long start = Metrics.start();
+    try {
+      int i = 0;
+      for (PDPage page : source.getPages()) {
+        if (i == pageWidths.length) break;
+        PDRectangle box = page.getCropBox();
+        int rotation = page.getRotation();
+        synchronized (this) { if (!measured.get(i)) measure(box, rotation, i); }
+        i++;
+      }
+      Metrics.record("open.measureAll", start);
+    } finally { allMeasured.complete(null); }
+  }
+
+  private synchronized void measure(PDDocument source, int pageIndex) {
+    if (measured.get(pageIndex)) return;
+    PDPage page = findPage(source, pageIndex);
+    measure(page.getCropBox(), page.getRotation(), pageIndex);
+  }
+
+  private static PDPage findPage(PDDocument source, int pageIndex) {
+    COSDictionary node = source.getPages().getCOSObject();
+    int remaining = pageIndex;
+    for (int depth = 0; depth < MAX_TREE_DEPTH; depth++) {
+      if (!(node.getDictionaryObject(COSName.KIDS) instanceof COSArray kids)) return new PDPage(node);
+      if (kids.size() == node.getInt(COSName.COUNT, -1) && remaining < kids.size()
+        && kids.getObject(remaining) instanceof COSDictionary leaf && !leaf.containsKey(COSName.KIDS)) return new PDPage(leaf);
+      COSDictionary next = null;
+      for (int i = 0; i < kids.size() && next == null; i++) {
+        if (!(kids.getObject(i) instanceof COSDictionary kid)) break;
+        int count = kid.containsKey(COSName.KIDS) ? kid.getInt(COSName.COUNT, -1) : 1;
+        if (count < 0) break;
+        if (remaining < count) next = kid;
+        else remaining -= count;
+      }
+      if (next == null) break;
+      node = next;
+    }
+    return source.getPage(pageIndex);
+  }
+
+  private void measure(PDRectangle box, int rotation, int pageIndex) {
+    boolean rotated = rotation % 180 != 0;
+    pageWidths[pageIndex] = rotated ? box.getHeight() : box.getWidth();
+    pageHeights[pageIndex] = rotated ? box.getWidth() : box.getHeight();
+    measured.set(pageIndex);
+  }
+
+  public Image getCached(int pageIndex, float scale) {
+    return cache.get(new PageCache.Key(document, pageIndex, scale));
+  }
+
+  public Image getStored(int pageIndex, float scale) {
+    PageCache.Key key = new PageCache.Key(document, pageIndex, scale);
+    Image image = cache.get(key);
+    if (image != null) Metrics.count("cache.memoryHits");
+    else {
+      image = diskCache.get(pageIndex, scale);
+      if (image != null) {
+        Metrics.count("cache.diskHits");
+        cache.put(key, image);
+      } else Metrics.count("cache.misses");
+    }
+    return image;
+  }
+
+  public void cache(int pageIndex, float scale, Image image) {
+    cache.put(new PageCache.Key(document, pageIndex, scale), image);
+    diskCache.put(pageIndex, scale, image);
+  }
+
+  public Image render(PDFRenderer renderer, PDDocument source, int pageIndex, float scale) throws IOException {
+    return render(renderer, source, pageIndex, scale, true);
+  }
+
+  public Image render(PDFRenderer renderer, PDDocument source, int pageIndex, float scale, boolean cached) throws IOException {
+    Image image = cached ? getStored(pageIndex, scale) : cache.get(new PageCache.Key(document, pageIndex, scale));
+    if (image != null) return image;
+
+    measure(source, pageIndex);
+    int width = (int) Math.max(Math.floor(pageWidths[pageIndex] * scale), 1);
+    int height = (int) Math.max(Math.floor(pageHeights[pageIndex] * scale), 1);
+    image = pixels.render(renderer, source, pageIndex, scale, width, height, 0, 0);
+    if (cached) cache(pageIndex, scale, image);
+    return image;
+  }
+
+  public Image getCachedTile(int pageIndex, float scale, int column, int row) {
+    return cache.get(new PageCache.Key(document, pageIndex, scale, column, row));
+  }
+
+  public Image renderTile(PDFRenderer renderer, PDDocument source, int pageIndex, float scale, int column, int row, int tileSize) throws IOException {
+    PageCache.Key key = new PageCache.Key(document, pageIndex, scale, column, row);
+    Image image = cache.get(key);
+    if (image != null) {
+      Metrics.count("cache.memoryHits");
+      return image;
+    }
+    Metrics.count("cache.misses");
+
+    measure(source, pageIndex);
+    int width = Math.min(tileSize, (int) Math.ceil(pageWidths[pageIndex] * scale) - column * tileSize);
+    int height = Math.min(tileSize, (int) Math.ceil(pageHeights[pageIndex] * scale) - row * tileSize);
+    image = pixels.render(renderer, source, pageIndex, scale, Math.max(1, width), Math.max(1, height), column * tileSize, row * tileSize);
+    cache.put(key, image);
+    return image;
+  }
+}
@@ -0,0 +1,113 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+public class PdfSaver {
+
+  public enum Mode { COPY, INCREMENTAL, FULL }
+
+  public interface Listener { void progress(Mode mode, long written, long expected); }
+
+  private static final double MAX_INCREMENT_RATIO = 0.25;
+
+  private final DocumentSource source;
+  private volatile boolean cancelled = false;
+
+  public PdfSaver(DocumentSource source) { this.source = source; }
+
+  public void cancel() { cancelled = true; }
+
+  public boolean isCancelled() { return cancelled; }
+
+  public Mode save(File target, Listener listener) throws IOException {
+    long start = Metrics.start();
+    long sourceBytes = source.file().length();
+    Path directory = target.getAbsoluteFile().toPath().getParent();
+    Path temp = Files.createTempFile(directory, target.getName(), ".tmp");
+    try {
+      Mode mode;
+      try (PDDocument document = source.open()) {
+        mode = document.getDocumentCatalog().getCOSObject().toIncrement().getObjects().isEmpty() ? Mode.COPY : Mode.INCREMENTAL;
+        if (mode == Mode.INCREMENTAL) {
+          try {
+            write(document, temp, Mode.INCREMENTAL, sourceBytes, listener);
+          } catch (IllegalStateException e) { mode = Mode.FULL; }
+          if (mode == Mode.INCREMENTAL && Files.size(temp) - sourceBytes > sourceBytes * MAX_INCREMENT_RATIO) mode = Mode.FULL;
+          if (mode == Mode.FULL) write(document, temp, Mode.FULL, sourceBytes, listener);
+        }
+      }
+      if (mode == Mode.COPY) copy(temp, sourceBytes, listener);
+
+      Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      Metrics.record("save." + mode.name().toLowerCase(Locale.ROOT), start);
+      return mode;
+    } catch (InterruptedIOException e) {
+      return null;
+    } finally { Files.deleteIfExists(temp); }
+  }
+
+  private void copy(Path file, long expected, Listener listener) throws IOException {
+    try (InputStream in = Files.newInputStream(source.file().toPath());
+         OutputStream out = new Progress(new BufferedOutputStream(Files.newOutputStream(file)), Mode.COPY, expected, listener)) {
+      in.transferTo(out);
+    }
+  }
+
+  private void write(PDDocument document, Path file, Mode mode, long expected, Listener listener) throws IOException {
+    try (OutputStream out = new Progress(new BufferedOutputStream(Files.newOutputStream(file)), mode, expected, listener)) {
+      if (mode == Mode.INCREMENTAL) document.saveIncremental(out);
+      else document.save(out, CompressParameters.DEFAULT_COMPRESSION);
+    }
+  }
+
+  private class Progress extends FilterOutputStream {
+    private static final long REPORT_BYTES = 1024 * 1024;
+
+    private final Mode mode;
+    private final long expected;
+    private final Listener listener;
+    private long written = 0;
+    private long reported = 0;
+
+    Progress(OutputStream out, Mode mode, long expected, Listener listener) {
+      super(out);
+      this.mode = mode;
+      this.expected = expected;
+      this.listener = listener;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      advance(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      advance(len);
+    }
+
+    private void advance(long bytes) throws IOException {
+      if (cancelled) throw new InterruptedIOException("Save cancelled");
+      written += bytes;
+      if (written - reported >= REPORT_BYTES) {
+        reported = written;
+        listener.progress(mode, written, expected);
+      }
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PdfSplitter {
+
+  public interface Listener { void progress(int written, int total); }
+
+  private final DocumentSource source;
+  private final DocumentWorkerPool sharedPool;
+  private final int workers;
+  private volatile boolean cancelled = false;
+
+  public PdfSplitter(DocumentSource source, int workers) {
+    this.source = source;
+    this.sharedPool = null;
+    this.workers = workers;
+  }
+
+  public PdfSplitter(DocumentSource source, DocumentWorkerPool pool) {
+    this.source = source;
+    this.sharedPool = pool;
+    this.workers = pool.getWorkers();
+  }
+
+  public void cancel() { cancelled = true; }
+
+  public boolean isCancelled() { return cancelled; }
+
+  public List<File> export(File target, List<PageRange> ranges, boolean split, Listener listener) throws IOException, InterruptedException {
+    long start = Metrics.start();
+    List<List<PageRange>> groups = new ArrayList<>();
+    if (split) ranges.forEach(range -> groups.add(List.of(range)));
+    else groups.add(ranges);
+
+    String baseName = target.getName().replaceFirst("(?i)\\.pdf$", "");
+    int total = PageRange.pages(ranges).length;
+    AtomicInteger written = new AtomicInteger();
+    List<File> files = new ArrayList<>();
+    List<CompletableFuture<Void>> jobs = new ArrayList<>();
+
+    DocumentWorkerPool pool = sharedPool != null ? sharedPool : new DocumentWorkerPool(source, workers, "export-pdf");
+    try {
+      for (List<PageRange> group : groups) {
+        File file = groups.size() == 1 ? target : new File(target.getAbsoluteFile().getParentFile(), baseName + "_" + group.get(0) + ".pdf");
+        files.add(file);
+        jobs.add(pool.submit(DocumentWorkerPool.Priority.EXPORT, (document, renderer) -> {
+          if (cancelled) return null;
+          write(document, group, file);
+          listener.progress(written.addAndGet(PageRange.pages(group).length), total);
+          return null;
+        }));
+      }
+
+      for (CompletableFuture<Void> job : jobs) {
+        try { job.get(); } catch (ExecutionException e) {
+          throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (CancellationException e) { cancelled = true; }
+      }
+    } finally {
+      jobs.forEach(job -> job.cancel(false));
+      if (pool != sharedPool) pool.shutdown();
+    }
+
+    if (cancelled) {
+      for (File file : files) file.delete();
+      return List.of();
+    }
+    Metrics.record("export.pdf", start);
+    return files;
+  }
+
+  private static void write(PDDocument document, List<PageRange> group, File file) throws IOException {
+    Set<COSBase> included = Collections.newSetFromMap(new IdentityHashMap<>());
+    int[] pages = PageRange.pages(group);
+    for (int pageIndex : pages) included.add(document.getPage(pageIndex).getCOSObject());
+
+    try (PDDocument output = new PDDocument()) {
+      output.getDocument().setVersion(document.getVersion());
+      output.setDocumentInformation(document.getDocumentInformation());
+      for (int pageIndex : pages) {
+        PDPage page = document.getPage(pageIndex);
+        COSDictionary copy = new COSDictionary(page.getCOSObject());
+        copy.removeItem(COSName.PARENT);
+        copy.removeItem(COSName.B);
+        copyAnnotations(copy, included);
+
+        PDPage imported = new PDPage(copy);
+        imported.setMediaBox(page.getMediaBox());
+        imported.setCropBox(page.getCropBox());
+        imported.setRotation(page.getRotation());
+        imported.setResources(page.getResources());
+        output.addPage(imported);
+      }
+      output.save(file, CompressParameters.DEFAULT_COMPRESSION);
+    }
+  }
+
+  private static void copyAnnotations(COSDictionary page, Set<COSBase> included) {
+    COSArray annotations = page.getCOSArray(COSName.ANNOTS);
+    if (annotations == null) return;
+
+    COSArray kept = new COSArray();
+    for (int i = 0; i < annotations.size(); i++) {
+      if (!(annotations.getObject(i) instanceof COSDictionary annotation) || COSName.POPUP.equals(annotation.getCOSName(COSName.SUBTYPE))) continue;
+      COSDictionary copy = new COSDictionary(annotation);
+      copy.removeItem(COSName.P);
+      copy.removeItem(COSName.POPUP);
+      copy.removeItem(COSName.PARENT);
+      if (!targetsIncluded(copy.getDictionaryObject(COSName.DEST), included)) copy.removeItem(COSName.DEST);
+      if (copy.getDictionaryObject(COSName.A) instanceof COSDictionary action && !keepAction(action, included)) copy.removeItem(COSName.A);
+      kept.add(copy);
+    }
+    page.setItem(COSName.ANNOTS, kept);
+  }
+
+  private static boolean keepAction(COSDictionary action, Set<COSBase> included) {
+    return switch (String.valueOf(action.getNameAsString(COSName.S))) {
+      case "URI" -> true;
+      case "GoTo" -> targetsIncluded(action.getDictionaryObject(COSName.D), included);
+      default -> false;
+    };
+  }
+
+  private static boolean targetsIncluded(COSBase destination, Set<COSBase> included) {
+    if (destination == null) return true;
+    if (!(destination instanceof COSArray array) || array.size() == 0) return false;
+    COSBase target = array.get(0);
+    if (target instanceof COSObject object) target = object.getObject();
+    return included.contains(target);
+  }
+}
@@ -0,0 +1,105 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PixelBufferPool {
+
+  private static final DirectColorModel ARGB_PRE = new DirectColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), 32,
+    0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000, true, DataBuffer.TYPE_INT);
+
+  private static class Lease extends WeakReference<WritableImage> {
+    private final int[] pixels;
+
+    private Lease(WritableImage image, int[] pixels, ReferenceQueue<WritableImage> queue) {
+      super(image, queue);
+      this.pixels = pixels;
+    }
+  }
+
+  private final long maxPooledBytes;
+  private long pooledBytes = 0;
+  private final Map<Integer, Deque<int[]>> free = new HashMap<>();
+  private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<WritableImage> released = new ReferenceQueue<>();
+
+  public PixelBufferPool(long maxPooledBytes) { this.maxPooledBytes = maxPooledBytes; }
+
+  public WritableImage render(PDFRenderer renderer, Object lock, int pageIndex, float scale, int width, int height, int x, int y) throws IOException {
+    int[] pixels = acquire(width * height);
+    WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, width * height), width, height, width, ARGB_PRE.getMasks(), null);
+    BufferedImage target = new BufferedImage(ARGB_PRE, raster, true, null);
+
+    Graphics2D graphics = target.createGraphics();
+    graphics.setBackground(Color.WHITE);
+    graphics.clearRect(0, 0, width, height);
+    graphics.translate(-x, -y);
+    graphics.clipRect(x, y, width, height);
+    try {
+      long start = Metrics.start();
+      synchronized (lock) { renderer.renderPageToGraphics(pageIndex, graphics, scale); }
+      Metrics.record("rasterize", start);
+    } catch (IOException | RuntimeException e) {
+      recycle(pixels);
+      throw e;
+    } finally { graphics.dispose(); }
+
+    WritableImage image = new WritableImage(new PixelBuffer<>(width, height, IntBuffer.wrap(pixels, 0, width * height), PixelFormat.getIntArgbPreInstance()));
+    leases.add(new Lease(image, pixels, released));
+    return image;
+  }
+
+  public synchronized long getPooledBytes() {
+    reclaim();
+    return pooledBytes;
+  }
+
+  private synchronized int[] acquire(int length) {
+    reclaim();
+    Deque<int[]> buffers = free.get(length);
+    int[] pixels = buffers != null ? buffers.poll() : null;
+    if (pixels == null) return new int[length];
+    pooledBytes -= (long) length * 4;
+    return pixels;
+  }
+
+  private void reclaim() {
+    Reference<? extends WritableImage> reference;
+    while ((reference = released.poll()) != null) {
+      Lease lease = (Lease) reference;
+      leases.remove(lease);
+      recycle(lease.pixels);
+    }
+  }
+
+  private synchronized void recycle(int[] pixels) {
+    long size = (long) pixels.length * 4;
+    if (pooledBytes + size > maxPooledBytes) return;
+    free.computeIfAbsent(pixels.length, length -> new ArrayDeque<>()).push(pixels);
+    pooledBytes += size;
+  }
+}
@@ -0,0 +1,46 @@
+package com.goddard.goddardpdf;
+
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+public class ProgressDialog extends Stage {
+
+  private final Label progressLabel;
+  private final ProgressBar progressBar = new ProgressBar(0);
+  private final Button cancelButton = new Button("Cancel");
+
+  public ProgressDialog(String title, String initialText, Runnable onCancel) {
+    progressLabel = new Label(initialText);
+    progressBar.setMaxWidth(Double.MAX_VALUE);
+
+    VBox progressBox = new VBox(10, progressLabel, progressBar, cancelButton);
+    progressBox.setPadding(new Insets(10));
+    setScene(new Scene(progressBox, 320, -1));
+    initModality(Modality.APPLICATION_MODAL);
+    setTitle(title);
+
+    cancelButton.setOnAction(e -> cancel(onCancel));
+    setOnCloseRequest(e -> {
+      e.consume();
+      cancel(onCancel);
+    });
+  }
+
+  public void update(double progress, String text) {
+    if (progress < progressBar.getProgress()) return;
+    progressBar.setProgress(progress);
+    progressLabel.setText(text);
+  }
+
+  private void cancel(Runnable onCancel) {
+    cancelButton.setDisable(true);
+    progressLabel.setText("Cancelling...");
+    onCancel.run();
+  }
+}
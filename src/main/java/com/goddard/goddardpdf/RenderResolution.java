@@ -0,0 +1,33 @@
+package com.goddard.goddardpdf;
+
+public class RenderResolution {
+
+  public static final double DEFAULT_HYSTERESIS = 0.2;
+
+  private final double minDpi;
+  private final double maxDpi;
+  private final double hysteresis;
+  private double levelDpi = 0;
+
+  public RenderResolution(double minDpi, double maxDpi, double hysteresis) {
+    this.minDpi = minDpi;
+    this.maxDpi = maxDpi;
+    this.hysteresis = hysteresis;
+  }
+
+  public static double neededDpi(double layoutDpi, double zoom, double outputScale) { return layoutDpi * zoom * outputScale; }
+
+  public float update(double neededDpi) {
+    double target = Math.clamp(neededDpi, minDpi, maxDpi);
+    if (levelDpi == 0 || target > levelDpi * (1 + hysteresis) || target < levelDpi / 2 * (1 - hysteresis)) {
+      double level = minDpi * Math.pow(2, Math.ceil(Math.log(target / minDpi) / Math.log(2) - 1e-9));
+      if (level != levelDpi) Metrics.count("render.resolutionChanges");
+      levelDpi = Math.min(maxDpi, level);
+    }
+    return getScale();
+  }
+
+  public float getScale() { return (float) (levelDpi / 72); }
+
+  public void reset() { levelDpi = 0; }
+}
@@ -0,0 +1,105 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class RenderScheduler {
+
+  public interface Listener { void pageReady(int pageIndex, Image image, float scale); }
+
+  public static final float PREVIEW_SCALE = 48f / 72;
+
+  private final RenderService service;
+  private final PageRenderer renderer;
+  private final int prefetchDistance;
+  private final AtomicLong generation = new AtomicLong();
+  private final List<Future<?>> pending = new ArrayList<>();
+  private final FrameBatcher batcher = new FrameBatcher();
+
+  public RenderScheduler(RenderService service, int prefetchDistance) {
+    this.service = service;
+    this.renderer = service.getPages();
+    this.prefetchDistance = prefetchDistance;
+  }
+
+  public void request(int pageIndex, float scale, Listener target, Consumer<IOException> onError) {
+    cancel();
+    long requestGeneration = generation.get();
+    long start = Metrics.start();
+    boolean[] shown = {false};
+    Listener listener = (index, image, imageScale) -> {
+      if (!shown[0]) Metrics.record("showPage.firstImage", start);
+      if (imageScale == scale) Metrics.record("showPage", start);
+      shown[0] = true;
+      target.pageReady(index, image, imageScale);
+    };
+
+    Image image = renderer.getCached(pageIndex, scale);
+    if (image != null) listener.pageReady(pageIndex, image, scale);
+    else {
+      Image preview = renderer.getCached(pageIndex, PREVIEW_SCALE);
+      if (preview != null) listener.pageReady(pageIndex, preview, PREVIEW_SCALE);
+      else pending.add(submit(requestGeneration, pageIndex, PREVIEW_SCALE, listener, onError));
+      pending.add(submit(requestGeneration, pageIndex, scale, listener, onError));
+    }
+
+    for (int distance = 1; distance <= prefetchDistance; distance++) {
+      prefetch(pageIndex + distance, scale);
+      prefetch(pageIndex - distance, scale);
+    }
+  }
+
+  public Future<?> render(int pageIndex, float scale, Listener listener, Consumer<IOException> onError) {
+    return deliver(service.render(pageIndex, scale, DocumentWorkerPool.Priority.VISIBLE), batcher, image -> listener.pageReady(pageIndex, image, scale), onError);
+  }
+
+  public Future<?> renderTile(int pageIndex, float scale, int column, int row, int tileSize, Consumer<Image> onTile, Consumer<IOException> onError) {
+    return deliver(service.renderTile(pageIndex, scale, column, row, tileSize, DocumentWorkerPool.Priority.VISIBLE), batcher, onTile, onError);
+  }
+
+  public void cancel() {
+    generation.incrementAndGet();
+    pending.forEach(future -> future.cancel(false));
+    pending.clear();
+  }
+
+  public void shutdown() {
+    cancel();
+    batcher.stop();
+    service.shutdown();
+  }
+
+  private Future<?> submit(long requestGeneration, int pageIndex, float scale, Listener listener, Consumer<IOException> onError) {
+    return deliver(service.render(pageIndex, scale, DocumentWorkerPool.Priority.VISIBLE), batcher, image -> {
+      if (generation.get() == requestGeneration) listener.pageReady(pageIndex, image, scale);
+    }, e -> { if (generation.get() == requestGeneration) onError.accept(e); });
+  }
+
+  private void prefetch(int pageIndex, float scale) {
+    if (pageIndex < 0 || pageIndex >= renderer.getPageCount() || renderer.getCached(pageIndex, scale) != null) return;
+    pending.add(service.render(pageIndex, scale, DocumentWorkerPool.Priority.PREFETCH));
+  }
+
+  static Future<?> deliver(CompletableFuture<Image> render, Executor fxThread, Consumer<Image> onImage, Consumer<IOException> onError) {
+    render.whenComplete((image, error) -> {
+      if (error == null) fxThread.execute(() -> onImage.accept(image));
+      else {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) return;
+        IOException failure = cause instanceof IOException e ? e : new IOException(cause.getMessage(), cause);
+        fxThread.execute(() -> onError.accept(failure));
+      }
+    });
+    return render;
+  }
+}
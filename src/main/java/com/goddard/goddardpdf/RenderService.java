@@ -0,0 +1,43 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+
+import java.util.concurrent.CompletableFuture;
+
+public class RenderService {
+
+  private final PageRenderer pages;
+  private final DocumentWorkerPool pool;
+
+  public RenderService(PageRenderer pages, DocumentWorkerPool pool) {
+    this.pages = pages;
+    this.pool = pool;
+  }
+
+  public PageRenderer getPages() { return pages; }
+
+  public DocumentWorkerPool getPool() { return pool; }
+
+  public CompletableFuture<Image> render(int pageIndex, float scale, DocumentWorkerPool.Priority priority) {
+    return pool.submit(priority, (document, renderer) -> pages.render(renderer, document, pageIndex, scale));
+  }
+
+  public CompletableFuture<Image> renderTransient(int pageIndex, float scale, DocumentWorkerPool.Priority priority) {
+    return pool.submit(priority, (document, renderer) -> pages.render(renderer, document, pageIndex, scale, false));
+  }
+
+  public CompletableFuture<Void> measureAll() {
+    return pool.submit(DocumentWorkerPool.Priority.PREFETCH, (document, renderer) -> {
+      pages.measureAll(document);
+      return null;
+    });
+  }
+
+  public CompletableFuture<Image> renderTile(int pageIndex, float scale, int column, int row, int tileSize, DocumentWorkerPool.Priority priority) {
+    return pool.submit(priority, (document, renderer) -> pages.renderTile(renderer, document, pageIndex, scale, column, row, tileSize));
+  }
+
+  public void shutdown() { pool.shutdownNow(); }
+
+  public CompletableFuture<Void> whenTerminated() { return pool.whenTerminated(); }
+}
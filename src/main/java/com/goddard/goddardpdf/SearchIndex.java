@@ -0,0 +1,278 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class SearchIndex {
+
+  public interface Listener { void progress(int indexed, int total); }
+
+  public record Hit(int pageIndex, float[] boxes) {}
+
+  private static final int FORMAT = 0x53494458;
+  private static final int VERSION = 2;
+  private static final int MAX_HITS = 10_000;
+
+  private static class Postings {
+    private long[] entries = new long[4];
+    private int size = 0;
+
+    private void add(int pageIndex, int token) {
+      if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+      entries[size++] = (long) pageIndex << 32 | token;
+    }
+  }
+
+  private final DiskCache.Document store;
+  private final int pageCount;
+  private final TreeMap<String, Integer> termIds = new TreeMap<>();
+  private final List<String> terms = new ArrayList<>();
+  private final List<Postings> postings = new ArrayList<>();
+  private final int[][] pageTerms;
+  private final float[][] pageBoxes;
+  private final PageStripper stripper = new PageStripper();
+  private final DocumentWorkerPool worker;
+  private int indexedPages = 0;
+  private int failedPages = 0;
+  private Path path;
+  private volatile boolean closed = false;
+
+  public SearchIndex(DocumentSource source, int pageCount, DiskCache.Document store, ThreadPoolExecutor executor) {
+    this.store = store;
+    this.worker = new DocumentWorkerPool(source, "search-index", executor);
+    this.pageCount = pageCount;
+    pageTerms = new int[pageCount][];
+    pageBoxes = new float[pageCount][];
+  }
+
+  public synchronized void start(Listener listener) {
+    worker.submit(DocumentWorkerPool.Priority.THUMBNAIL, (document, renderer) -> {
+      path = store != null ? store.path("search.idx") : null;
+      boolean loaded = path != null && load(path);
+      if (loaded) listener.progress(pageCount, pageCount);
+      return loaded;
+    }).whenComplete((loaded, error) -> {
+      if (error == null && !loaded && pageCount > 0) indexPage(0, listener);
+      else worker.shutdown();
+    });
+  }
+
+  public synchronized void close() {
+    closed = true;
+    worker.shutdownNow();
+  }
+
+  public void setSuspended(boolean suspended) { worker.setSuspended(suspended); }
+
+  public CompletableFuture<Void> whenTerminated() { return worker.whenTerminated(); }
+
+  public synchronized int getIndexedPages() { return indexedPages; }
+
+  public synchronized int getFailedPages() { return failedPages; }
+
+  public int getPageCount() { return pageCount; }
+
+  public synchronized List<Hit> search(String query) {
+    List<String> words = new ArrayList<>();
+    tokenize(query, words);
+    if (words.isEmpty()) return List.of();
+
+    int[] exact = new int[words.size() - 1];
+    for (int i = 0; i < exact.length; i++) {
+      Integer id = termIds.get(words.get(i));
+      if (id == null) return List.of();
+      exact[i] = id;
+    }
+    String prefix = words.get(words.size() - 1);
+    Collection<Integer> lastIds = termIds.subMap(prefix, prefix + Character.MAX_VALUE).values();
+    if (lastIds.isEmpty()) return List.of();
+
+    List<Long> starts = new ArrayList<>();
+    if (exact.length > 0) collect(postings.get(exact[0]), starts);
+    else for (int id : lastIds) collect(postings.get(id), starts);
+    starts.sort(null);
+
+    List<Hit> hits = new ArrayList<>();
+    for (long start : starts) {
+      int pageIndex = (int) (start >>> 32);
+      int token = (int) start;
+      int[] tokens = pageTerms[pageIndex];
+      if (token + words.size() > tokens.length) continue;
+
+      boolean matches = true;
+      for (int i = 1; i < exact.length && matches; i++) matches = tokens[token + i] == exact[i];
+      if (matches && exact.length > 0) matches = terms.get(tokens[token + exact.length]).startsWith(prefix);
+      if (!matches) continue;
+
+      hits.add(new Hit(pageIndex, Arrays.copyOfRange(pageBoxes[pageIndex], token * 4, (token + words.size()) * 4)));
+      if (hits.size() == MAX_HITS) break;
+    }
+    return hits;
+  }
+
+  private static void collect(Postings postings, List<Long> into) {
+    for (int i = 0; i < postings.size; i++) into.add(postings.entries[i]);
+  }
+
+  private void indexPage(int pageIndex, Listener listener) {
+    worker.submit(DocumentWorkerPool.Priority.THUMBNAIL, (document, renderer) -> {
+      stripper.words.clear();
+      stripper.boxes.clear();
+      stripper.setStartPage(pageIndex + 1);
+      stripper.setEndPage(pageIndex + 1);
+      try {
+        stripper.getText(document);
+        float[] boxes = new float[stripper.boxes.size()];
+        for (int j = 0; j < boxes.length; j++) boxes[j] = stripper.boxes.get(j);
+        add(pageIndex, stripper.words, boxes);
+      } catch (IOException | RuntimeException e) {
+        Metrics.count("search.failedPages");
+        synchronized (this) { failedPages++; }
+        add(pageIndex, List.of(), new float[0]);
+      }
+      listener.progress(pageIndex + 1, pageCount);
+      if (pageIndex + 1 == pageCount && path != null && !closed) save(path);
+      return null;
+    }).whenComplete((result, error) -> {
+      if (error == null && pageIndex + 1 < pageCount && !closed) indexPage(pageIndex + 1, listener);
+      else worker.shutdown();
+    });
+  }
+
+  private synchronized void add(int pageIndex, List<String> words, float[] boxes) {
+    int[] ids = new int[words.size()];
+    for (int token = 0; token < ids.length; token++) {
+      ids[token] = termIds.computeIfAbsent(words.get(token), word -> {
+        terms.add(word);
+        postings.add(new Postings());
+        return terms.size() - 1;
+      });
+      postings.get(ids[token]).add(pageIndex, token);
+    }
+    pageTerms[pageIndex] = ids;
+    pageBoxes[pageIndex] = boxes;
+    indexedPages = pageIndex + 1;
+  }
+
+  private static void tokenize(String text, List<String> into) {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i <= text.length(); i++) {
+      if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) word.append(text.charAt(i));
+      else if (!word.isEmpty()) {
+        into.add(word.toString().toLowerCase(Locale.ROOT));
+        word.setLength(0);
+      }
+    }
+  }
+
+  private static class PageStripper extends PDFTextStripper {
+    private final List<String> words = new ArrayList<>();
+    private final List<Float> boxes = new ArrayList<>();
+    private final StringBuilder word = new StringBuilder();
+    private float minX, minY, maxX, maxY;
+
+    @Override
+    protected void writeString(String text, List<TextPosition> positions) {
+      for (TextPosition position : positions) {
+        String unicode = position.getUnicode();
+        if (unicode == null || unicode.isEmpty() || !unicode.codePoints().allMatch(Character::isLetterOrDigit)) {
+          endWord();
+          continue;
+        }
+        float x = position.getXDirAdj();
+        float y = position.getYDirAdj() - position.getHeightDir();
+        if (word.isEmpty()) {
+          minX = x;
+          minY = y;
+          maxX = x + position.getWidthDirAdj();
+          maxY = position.getYDirAdj();
+        } else {
+          minX = Math.min(minX, x);
+          minY = Math.min(minY, y);
+          maxX = Math.max(maxX, x + position.getWidthDirAdj());
+          maxY = Math.max(maxY, position.getYDirAdj());
+        }
+        word.append(unicode);
+      }
+      endWord();
+    }
+
+    private void endWord() {
+      if (word.isEmpty()) return;
+      words.add(word.toString().toLowerCase(Locale.ROOT));
+      boxes.addAll(List.of(minX, minY, maxX - minX, maxY - minY));
+      word.setLength(0);
+    }
+  }
+
+  private boolean load(Path path) {
+    if (!Files.exists(path)) return false;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+      if (in.readInt() != FORMAT || in.readInt() != VERSION || in.readInt() != pageCount) return false;
+      int failed = in.readInt();
+      String[] dictionary = new String[in.readInt()];
+      for (int i = 0; i < dictionary.length; i++) dictionary[i] = in.readUTF();
+      for (int pageIndex = 0; pageIndex < pageCount && !closed; pageIndex++) {
+        List<String> words = new ArrayList<>();
+        int tokens = in.readInt();
+        for (int token = 0; token < tokens; token++) words.add(dictionary[in.readInt()]);
+        float[] boxes = new float[tokens * 4];
+        for (int j = 0; j < boxes.length; j++) boxes[j] = in.readFloat();
+        add(pageIndex, words, boxes);
+      }
+      synchronized (this) { failedPages = failed; }
+      return !closed;
+    } catch (IOException | RuntimeException e) {
+      synchronized (this) {
+        termIds.clear();
+        terms.clear();
+        postings.clear();
+        Arrays.fill(pageTerms, null);
+        Arrays.fill(pageBoxes, null);
+        indexedPages = 0;
+      }
+      return false;
+    }
+  }
+
+  private synchronized void save(Path path) {
+    try {
+      Files.createDirectories(path.getParent());
+      Path temp = Files.createTempFile(path.getParent(), "search", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+        out.writeInt(FORMAT);
+        out.writeInt(VERSION);
+        out.writeInt(pageCount);
+        out.writeInt(failedPages);
+        out.writeInt(terms.size());
+        for (String term : terms) out.writeUTF(term);
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+          out.writeInt(pageTerms[pageIndex].length);
+          for (int id : pageTerms[pageIndex]) out.writeInt(id);
+          for (float value : pageBoxes[pageIndex]) out.writeFloat(value);
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ignored) { }
+  }
+}
@@ -0,0 +1,214 @@
+package com.goddard.goddardpdf;
+
+import javafx.animation.PauseTransition;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+public class Slideshow extends Stage {
+
+  public static final int LOOKAHEAD = 3;
+  private static final double MIN_INTERVAL_SECONDS = 1;
+  private static final double DEFAULT_INTERVAL_SECONDS = 10;
+
+  private record Slide(int pageIndex, float scale, CompletableFuture<Image> image) {
+    boolean isReady() { return image.isDone() && !image.isCompletedExceptionally(); }
+  }
+
+  private final RenderService service;
+  private final PageRenderer pages;
+  private final IntConsumer onExit;
+  private final Consumer<IOException> onError;
+  private final double pixelWidth;
+  private final double pixelHeight;
+  private final double outputScale;
+  private final Slide[] ring = new Slide[LOOKAHEAD + 2];
+  private final FrameBatcher batcher = new FrameBatcher();
+  private final ImageView slideView = new ImageView();
+  private final Label status = new Label();
+  private final PauseTransition autoAdvance = new PauseTransition(Duration.seconds(DEFAULT_INTERVAL_SECONDS));
+  private final PauseTransition hideStatus = new PauseTransition(Duration.seconds(2));
+  private double intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+  private boolean playing = false;
+  private int pageIndex = -1;
+
+  public Slideshow(Window owner, RenderService service, int startPage, IntConsumer onExit, Consumer<IOException> onError) {
+    this.service = service;
+    this.pages = service.getPages();
+    this.onExit = onExit;
+    this.onError = onError;
+
+    Screen screen = Screen.getScreensForRectangle(owner.getX(), owner.getY(), owner.getWidth(), owner.getHeight()).stream()
+      .findFirst().orElse(Screen.getPrimary());
+    Rectangle2D bounds = screen.getBounds();
+    outputScale = screen.getOutputScaleX();
+    pixelWidth = bounds.getWidth() * outputScale;
+    pixelHeight = bounds.getHeight() * screen.getOutputScaleY();
+
+    slideView.setPreserveRatio(true);
+    slideView.setSmooth(true);
+    status.setStyle("-fx-background-color: rgba(0, 0, 0, 0.6); -fx-text-fill: white; -fx-font-size: 16; -fx-padding: 6 10;");
+    status.setVisible(false);
+    StackPane.setAlignment(status, Pos.BOTTOM_RIGHT);
+    StackPane.setMargin(status, new Insets(20));
+
+    StackPane content = new StackPane(slideView, status);
+    content.setStyle("-fx-background-color: black;");
+    Scene scene = new Scene(content, Color.BLACK);
+    scene.addEventHandler(KeyEvent.KEY_PRESSED, this::onKey);
+    content.setOnMouseClicked(event -> {
+      if (event.getButton() == MouseButton.PRIMARY) next();
+      else if (event.getButton() == MouseButton.SECONDARY) previous();
+    });
+    setScene(scene);
+
+    initOwner(owner);
+    setX(bounds.getMinX());
+    setY(bounds.getMinY());
+    setFullScreenExitHint("");
+    setFullScreenExitKeyCombination(KeyCombination.NO_MATCH);
+    setFullScreen(true);
+    setOnCloseRequest(event -> onExit.accept(pageIndex));
+    setOnHidden(event -> stop());
+
+    autoAdvance.setOnFinished(event -> advance());
+    hideStatus.setOnFinished(event -> status.setVisible(false));
+    showSlide(startPage);
+  }
+
+  private void onKey(KeyEvent event) {
+    switch (event.getCode()) {
+      case RIGHT, DOWN, PAGE_DOWN, SPACE, ENTER, N -> next();
+      case LEFT, UP, PAGE_UP, BACK_SPACE, P -> previous();
+      case HOME -> showSlide(0);
+      case END -> showSlide(pages.getPageCount() - 1);
+      case A -> setPlaying(!playing);
+      case PLUS, ADD, EQUALS -> setInterval(intervalSeconds + 1);
+      case MINUS, SUBTRACT -> setInterval(intervalSeconds - 1);
+      case ESCAPE, Q -> exit();
+      default -> { return; }
+    }
+    event.consume();
+  }
+
+  private void next() {
+    if (pageIndex + 1 < pages.getPageCount()) showSlide(pageIndex + 1);
+    else setPlaying(false);
+  }
+
+  private void previous() { showSlide(pageIndex - 1); }
+
+  private void exit() {
+    close();
+    onExit.accept(pageIndex);
+  }
+
+  private void setPlaying(boolean playing) {
+    this.playing = playing;
+    if (playing) autoAdvance.playFromStart();
+    else autoAdvance.stop();
+    showStatus();
+  }
+
+  private void setInterval(double seconds) {
+    intervalSeconds = Math.max(MIN_INTERVAL_SECONDS, seconds);
+    autoAdvance.setDuration(Duration.seconds(intervalSeconds));
+    if (playing) autoAdvance.playFromStart();
+    showStatus();
+  }
+
+  private void advance() {
+    if (!playing) return;
+    if (pageIndex + 1 >= pages.getPageCount()) {
+      setPlaying(false);
+      return;
+    }
+
+    int target = pageIndex + 1;
+    Slide slide = ring[target % ring.length];
+    if (slide != null && slide.pageIndex() == target && !slide.isReady()) {
+      Metrics.count("slideshow.heldAdvances");
+      RenderScheduler.deliver(slide.image(), batcher, image -> { if (playing && pageIndex == target - 1) showSlide(target); }, onError);
+    } else showSlide(target);
+  }
+
+  private void showSlide(int target) {
+    if (target < 0 || target >= pages.getPageCount()) return;
+    long start = Metrics.start();
+    pageIndex = target;
+    fill();
+
+    Slide slide = ring[target % ring.length];
+    if (slide.isReady()) {
+      display(slide, slide.image().join());
+      Metrics.count("slideshow.readySlides");
+    } else {
+      Image preview = pages.getCached(target, RenderScheduler.PREVIEW_SCALE);
+      if (preview != null) display(slide, preview);
+      Metrics.count("slideshow.lateSlides");
+      RenderScheduler.deliver(slide.image(), batcher, image -> {
+        if (pageIndex == target) display(slide, image);
+      }, onError);
+    }
+    Metrics.record("slideshow.transition", start);
+    if (playing) autoAdvance.playFromStart();
+    showStatus();
+  }
+
+  private void fill() {
+    for (int page = Math.max(0, pageIndex - 1); page <= Math.min(pages.getPageCount() - 1, pageIndex + LOOKAHEAD); page++) {
+      int slot = page % ring.length;
+      Slide slide = ring[slot];
+      if (slide != null && slide.pageIndex() == page) continue;
+
+      if (slide != null) slide.image().cancel(false);
+      float scale = scaleFor(page);
+      ring[slot] = new Slide(page, scale, service.renderTransient(page, scale, page == pageIndex ? DocumentWorkerPool.Priority.VISIBLE : DocumentWorkerPool.Priority.PREFETCH));
+    }
+  }
+
+  private float scaleFor(int page) {
+    return (float) Math.min(pixelWidth / pages.getPageWidth(page), pixelHeight / pages.getPageHeight(page));
+  }
+
+  private void display(Slide slide, Image image) {
+    slideView.setFitWidth(pages.getPageWidth(slide.pageIndex()) * slide.scale() / outputScale);
+    slideView.setImage(image);
+  }
+
+  private void showStatus() {
+    status.setText((pageIndex + 1) + " / " + pages.getPageCount() + (playing ? String.format("   ▶ %.0f s", intervalSeconds) : ""));
+    status.setVisible(true);
+    hideStatus.playFromStart();
+  }
+
+  private void stop() {
+    playing = false;
+    autoAdvance.stop();
+    hideStatus.stop();
+    batcher.stop();
+    for (int i = 0; i < ring.length; i++) {
+      if (ring[i] != null) ring[i].image().cancel(false);
+      ring[i] = null;
+    }
+    slideView.setImage(null);
+  }
+}
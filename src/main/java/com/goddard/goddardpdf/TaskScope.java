@@ -0,0 +1,44 @@
+package com.goddard.goddardpdf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class TaskScope implements AutoCloseable {
+
+  private final Deque<Runnable> cleanups = new ArrayDeque<>();
+  private final List<CompletableFuture<?>> joins = new ArrayList<>();
+  private volatile boolean closed = false;
+
+  public synchronized Runnable onClose(Runnable cleanup) {
+    if (closed) {
+      cleanup.run();
+      return () -> { };
+    }
+    cleanups.push(cleanup);
+    return () -> { synchronized (this) { cleanups.remove(cleanup); } };
+  }
+
+  public synchronized void join(CompletableFuture<?> termination) { joins.add(termination); }
+
+  public Runnable guard(Runnable callback) { return () -> { if (!closed) callback.run(); }; }
+
+  public CompletableFuture<Void> closeAsync() {
+    List<Runnable> pending;
+    CompletableFuture<?>[] terminations;
+    synchronized (this) {
+      closed = true;
+      pending = new ArrayList<>(cleanups);
+      cleanups.clear();
+      terminations = joins.toArray(new CompletableFuture<?>[0]);
+      joins.clear();
+    }
+    pending.forEach(Runnable::run);
+    return CompletableFuture.allOf(terminations);
+  }
+
+  @Override
+  public void close() { closeAsync(); }
+}
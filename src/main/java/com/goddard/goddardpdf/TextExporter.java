@@ -0,0 +1,118 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+public class TextExporter {
+
+  public interface Listener { void progress(int exported, int total); }
+
+  private static final int CHUNK_PAGES = 16;
+
+  private final DocumentSource source;
+  private final DocumentWorkerPool sharedPool;
+  private final int workers;
+  private volatile boolean cancelled = false;
+
+  public TextExporter(DocumentSource source, int workers) {
+    this.source = source;
+    this.sharedPool = null;
+    this.workers = workers;
+  }
+
+  public TextExporter(DocumentSource source, DocumentWorkerPool pool) {
+    this.source = source;
+    this.sharedPool = pool;
+    this.workers = pool.getWorkers();
+  }
+
+  public void cancel() { cancelled = true; }
+
+  public boolean isCancelled() { return cancelled; }
+
+  public void export(File target, Listener listener) throws IOException, InterruptedException {
+    export(target, null, listener);
+  }
+
+  public void export(File target, List<PageRange> ranges, Listener listener) throws IOException, InterruptedException {
+    long start = Metrics.start();
+    if (ranges == null) {
+      try (PDDocument document = source.open()) { ranges = PageRange.all(document.getNumberOfPages()); }
+    }
+    try (Writer writer = Files.newBufferedWriter(target.toPath())) {
+      if (workers > 1 || sharedPool != null) exportParallel(writer, ranges, listener);
+      else exportSequential(writer, ranges, listener);
+    }
+    if (cancelled) Files.deleteIfExists(target.toPath());
+    else Metrics.record("export.txt", start);
+  }
+
+  private void exportSequential(Writer writer, List<PageRange> ranges, Listener listener) throws IOException {
+    try (PDDocument document = source.open()) {
+      int[] pages = PageRange.pages(ranges);
+      PDFTextStripper stripper = new PDFTextStripper();
+      for (int i = 0; i < pages.length && !cancelled; i++) {
+        stripper.setStartPage(pages[i] + 1);
+        stripper.setEndPage(pages[i] + 1);
+        stripper.writeText(document, writer);
+        listener.progress(i + 1, pages.length);
+      }
+    }
+  }
+
+  private void exportParallel(Writer writer, List<PageRange> ranges, Listener listener) throws IOException, InterruptedException {
+    Deque<PageRange> remaining = new ArrayDeque<>();
+    for (PageRange range : ranges) {
+      for (int first = range.first(); first <= range.last(); first += CHUNK_PAGES) remaining.add(new PageRange(first, Math.min(range.last(), first + CHUNK_PAGES - 1)));
+    }
+    int numPages = PageRange.pages(ranges).length;
+
+    DocumentWorkerPool pool = sharedPool != null ? sharedPool : new DocumentWorkerPool(source, workers, "export-text");
+    Deque<CompletableFuture<String>> chunks = new ArrayDeque<>();
+    Deque<PageRange> submitted = new ArrayDeque<>();
+    try {
+      int exported = 0;
+      while ((!remaining.isEmpty() || !chunks.isEmpty()) && !cancelled) {
+        while (!remaining.isEmpty() && chunks.size() < workers * 2) {
+          PageRange chunk = remaining.removeFirst();
+          int startPage = chunk.first() + 1;
+          int endPage = chunk.last() + 1;
+          submitted.add(chunk);
+          chunks.add(pool.submit(DocumentWorkerPool.Priority.EXPORT, (document, renderer) -> {
+            if (cancelled) return "";
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            StringWriter text = new StringWriter();
+            stripper.writeText(document, text);
+            return text.toString();
+          }));
+        }
+
+        try { writer.write(chunks.removeFirst().get()); } catch (ExecutionException e) {
+          throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (CancellationException e) {
+          cancelled = true;
+          break;
+        }
+        exported += submitted.removeFirst().size();
+        listener.progress(exported, numPages);
+      }
+    } finally {
+      chunks.forEach(chunk -> chunk.cancel(false));
+      if (pool != sharedPool) pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class ThumbnailPipeline {
+
+  private final RenderService service;
+  private final PageRenderer pages;
+  private final double tileWidth;
+  private final Set<Future<?>> pending = ConcurrentHashMap.newKeySet();
+  private final FrameBatcher batcher = new FrameBatcher();
+  private volatile boolean closed = false;
+
+  public ThumbnailPipeline(RenderService service, double tileWidth) {
+    this.service = service;
+    this.pages = service.getPages();
+    this.tileWidth = tileWidth;
+  }
+
+  public float getScale(int pageIndex) { return (float) (tileWidth / pages.getPageWidth(pageIndex)); }
+
+  public Image getCached(int pageIndex) { return pages.getCached(pageIndex, getScale(pageIndex)); }
+
+  public Future<?> request(int pageIndex, RenderScheduler.Listener listener, Consumer<IOException> onError) {
+    float scale = getScale(pageIndex);
+    CompletableFuture<Image> render = service.render(pageIndex, scale, DocumentWorkerPool.Priority.THUMBNAIL);
+    pending.add(render);
+    render.whenComplete((image, error) -> pending.remove(render));
+    return RenderScheduler.deliver(render, batcher, image -> { if (!closed) listener.pageReady(pageIndex, image, scale); },
+      e -> { if (!closed) onError.accept(e); });
+  }
+
+  public void shutdown() {
+    closed = true;
+    batcher.stop();
+    pending.forEach(future -> future.cancel(false));
+    pending.clear();
+  }
+}
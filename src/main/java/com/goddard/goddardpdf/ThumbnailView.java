@@ -0,0 +1,207 @@
+package com.goddard.goddardpdf;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+public class ThumbnailView extends ScrollPane {
+
+  public static final double TILE_WIDTH = 200;
+  private static final double GAP = 10;
+  private static final String TILE_STYLE = "-fx-background-color: white;";
+  private static final String SELECTED_STYLE = TILE_STYLE + " -fx-effect: dropshadow(gaussian, #0d98ba, 10, 0.5, 0, 0);";
+
+  private final ThumbnailPipeline pipeline;
+  private final Consumer<IOException> onError;
+  private final Pane content = new Pane();
+  private final PauseTransition resize = new PauseTransition(Duration.millis(100));
+  private final List<Tile> tiles = new ArrayList<>();
+  private final Set<Tile> loaded = new LinkedHashSet<>();
+  private double[] rowTops = new double[0];
+  private int columns = 0;
+  private final Set<Tile> selected = new LinkedHashSet<>();
+  private Tile anchor;
+
+  public ThumbnailView(ThumbnailPipeline pipeline, PageRenderer pages, IntConsumer onOpen, Consumer<IOException> onError) {
+    this.pipeline = pipeline;
+    this.onError = onError;
+
+    setContent(content);
+    setFitToWidth(true);
+
+    for (int i = 0; i < pages.getPageCount(); i++) {
+      Tile tile = new Tile(i, TILE_WIDTH * pages.getPageHeight(i) / pages.getPageWidth(i));
+      tile.setOnMouseClicked(event -> {
+        if (event.getClickCount() == 2) onOpen.accept(tile.pageIndex);
+        else if (event.getClickCount() == 1) {
+          if (event.isShiftDown() && anchor != null) selectRange(anchor, tile, event.isShortcutDown());
+          else if (event.isShortcutDown()) toggle(tile);
+          else select(tile);
+        }
+      });
+      tiles.add(tile);
+    }
+
+    resize.setOnFinished(event -> {
+      repositionTiles();
+      loadVisibleTiles();
+    });
+    viewportBoundsProperty().addListener(observable -> {
+      if (columns == 0) {
+        repositionTiles();
+        loadVisibleTiles();
+      } else resize.playFromStart();
+    });
+    vvalueProperty().addListener(observable -> loadVisibleTiles());
+  }
+
+  public int[] getSelectedPages() { return selected.stream().mapToInt(tile -> tile.pageIndex).sorted().toArray(); }
+
+  private void select(Tile tile) {
+    clearSelection();
+    toggle(tile);
+  }
+
+  private void toggle(Tile tile) {
+    anchor = tile;
+    if (selected.remove(tile)) tile.setStyle(TILE_STYLE);
+    else {
+      selected.add(tile);
+      tile.setStyle(SELECTED_STYLE);
+      tile.toFront();
+    }
+  }
+
+  private void selectRange(Tile from, Tile to, boolean extend) {
+    if (!extend) clearSelection();
+    for (int i = Math.min(from.pageIndex, to.pageIndex); i <= Math.max(from.pageIndex, to.pageIndex); i++) {
+      Tile tile = tiles.get(i);
+      if (selected.add(tile)) tile.setStyle(SELECTED_STYLE);
+    }
+  }
+
+  private void clearSelection() {
+    selected.forEach(tile -> tile.setStyle(TILE_STYLE));
+    selected.clear();
+  }
+
+  private void repositionTiles() {
+    int newColumns = Math.max(1, (int) ((getViewportBounds().getWidth() + GAP) / (TILE_WIDTH + GAP)));
+    if (newColumns == columns) return;
+    columns = newColumns;
+
+    int rows = (tiles.size() + columns - 1) / columns;
+    rowTops = new double[rows + 1];
+    for (int row = 0; row < rows; row++) {
+      double rowHeight = 0;
+      for (int i = row * columns; i < Math.min(tiles.size(), (row + 1) * columns); i++) rowHeight = Math.max(rowHeight, tiles.get(i).getPrefHeight());
+      rowTops[row + 1] = rowTops[row] + rowHeight + GAP;
+    }
+    content.setPrefSize(columns * (TILE_WIDTH + GAP) - GAP, Math.max(0, rowTops[rows] - GAP));
+    loaded.forEach(this::place);
+  }
+
+  private void place(Tile tile) {
+    tile.relocate(tile.pageIndex % columns * (TILE_WIDTH + GAP), rowTops[tile.pageIndex / columns]);
+  }
+
+  private void loadVisibleTiles() {
+    if (columns == 0) return;
+    double viewportHeight = getViewportBounds().getHeight();
+    double contentHeight = rowTops[rowTops.length - 1];
+    double top = Math.max(0, getVvalue() * (contentHeight - viewportHeight));
+
+    int firstVisible = rowAt(top);
+    int lastVisible = rowAt(top + viewportHeight);
+    int firstNear = rowAt(top - viewportHeight);
+    int lastNear = rowAt(top + 2 * viewportHeight);
+
+    Iterator<Tile> iterator = loaded.iterator();
+    while (iterator.hasNext()) {
+      Tile tile = iterator.next();
+      int row = tile.pageIndex / columns;
+      if (row < firstNear || row > lastNear) {
+        tile.release();
+        content.getChildren().remove(tile);
+        iterator.remove();
+      }
+    }
+
+    loadRows(firstVisible, lastVisible);
+    loadRows(lastVisible + 1, lastNear);
+    loadRows(firstNear, firstVisible - 1);
+  }
+
+  private void loadRows(int firstRow, int lastRow) {
+    for (int i = firstRow * columns; i < Math.min(tiles.size(), (lastRow + 1) * columns); i++) {
+      Tile tile = tiles.get(i);
+      if (!loaded.add(tile)) continue;
+      place(tile);
+      content.getChildren().add(tile);
+      tile.load();
+    }
+  }
+
+  private int rowAt(double y) {
+    int row = 0;
+    int high = rowTops.length - 2;
+    while (row < high) {
+      int mid = (row + high + 1) / 2;
+      if (rowTops[mid] <= y) row = mid;
+      else high = mid - 1;
+    }
+    return row;
+  }
+
+  private class Tile extends StackPane {
+    private final int pageIndex;
+    private final ImageView pageView = new ImageView();
+    private Future<?> pending;
+    private int requests = 0;
+
+    Tile(int pageIndex, double height) {
+      this.pageIndex = pageIndex;
+      pageView.setPreserveRatio(true);
+      pageView.setFitWidth(TILE_WIDTH);
+      getChildren().add(pageView);
+      setMinSize(TILE_WIDTH, height);
+      setPrefSize(TILE_WIDTH, height);
+      setMaxSize(TILE_WIDTH, height);
+      setStyle(TILE_STYLE);
+    }
+
+    void load() {
+      Image cached = pipeline.getCached(pageIndex);
+      if (cached != null) pageView.setImage(cached);
+      else {
+        int request = ++requests;
+        pending = pipeline.request(pageIndex, (index, image, scale) -> {
+          if (request != requests) return;
+          pending = null;
+          pageView.setImage(image);
+        }, onError);
+      }
+    }
+
+    void release() {
+      requests++;
+      if (pending != null) pending.cancel(false);
+      pending = null;
+      pageView.setImage(null);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.goddard.goddardpdf;
+
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class TiledPageView extends Pane {
+
+  public static final int TILE_SIZE = 256;
+  private static final Duration SETTLE_DELAY = Duration.millis(150);
+  private static final Duration PAGE_CHANGE_DELAY = Duration.millis(20);
+  private static final double MIN_LEVEL_DPI = 37.5;
+  private static final double MAX_LEVEL_DPI = 2400;
+
+  private final PageRenderer renderer;
+  private final RenderScheduler scheduler;
+  private final float layoutDpi;
+  private final float baseDpi;
+  private final Consumer<IOException> onError;
+  private final ImageView base = new ImageView();
+  private Group previous = new Group();
+  private Group current = new Group();
+  private final Group highlights = new Group();
+  private final Map<Long, ImageView> tiles = new HashMap<>();
+  private final Map<Long, Future<?>> pending = new HashMap<>();
+  private final PauseTransition settle = new PauseTransition(SETTLE_DELAY);
+  private final RenderResolution resolution = new RenderResolution(MIN_LEVEL_DPI, MAX_LEVEL_DPI, RenderResolution.DEFAULT_HYSTERESIS);
+  private ZoomableScrollPane scrollPane;
+  private int pageIndex = -1;
+  private float levelScale = 0;
+
+  public TiledPageView(PageRenderer renderer, RenderScheduler scheduler, float layoutDpi, float baseDpi, Consumer<IOException> onError) {
+    this.renderer = renderer;
+    this.scheduler = scheduler;
+    this.layoutDpi = layoutDpi;
+    this.baseDpi = baseDpi;
+    this.onError = onError;
+
+    base.setSmooth(true);
+    getChildren().addAll(base, previous, current, highlights);
+    settle.setOnFinished(e -> refine());
+  }
+
+  public void attach(ZoomableScrollPane scrollPane) {
+    this.scrollPane = scrollPane;
+    InvalidationListener changed = observable -> refineAfter(SETTLE_DELAY);
+    scrollPane.hvalueProperty().addListener(changed);
+    scrollPane.vvalueProperty().addListener(changed);
+    scrollPane.viewportBoundsProperty().addListener(changed);
+    scaleXProperty().addListener(changed);
+  }
+
+  public void setPage(int pageIndex) {
+    if (pageIndex == this.pageIndex) return;
+    this.pageIndex = pageIndex;
+    clearLevel();
+    previous.getChildren().clear();
+    highlights.getChildren().clear();
+    levelScale = 0;
+
+    double width = renderer.getPageWidth(pageIndex) * layoutDpi / 72;
+    double height = renderer.getPageHeight(pageIndex) * layoutDpi / 72;
+    setMinSize(width, height);
+    setPrefSize(width, height);
+    setMaxSize(width, height);
+    base.setFitWidth(width);
+    base.setFitHeight(height);
+    base.setImage(null);
+    refineAfter(PAGE_CHANGE_DELAY);
+  }
+
+  public void setBaseImage(int pageIndex, Image image) {
+    if (pageIndex == this.pageIndex) base.setImage(image);
+  }
+
+  public void dispose() {
+    settle.stop();
+    clearLevel();
+    previous.getChildren().clear();
+    pageIndex = -1;
+  }
+
+  public void setHighlights(List<SearchIndex.Hit> hits, SearchIndex.Hit selected) {
+    highlights.getChildren().clear();
+    double unit = layoutDpi / 72;
+    for (SearchIndex.Hit hit : hits) {
+      if (hit.pageIndex() != pageIndex) continue;
+      float[] boxes = hit.boxes();
+      for (int i = 0; i < boxes.length; i += 4) {
+        Rectangle box = new Rectangle(boxes[i] * unit, boxes[i + 1] * unit, boxes[i + 2] * unit, boxes[i + 3] * unit);
+        box.setFill(hit == selected ? Color.rgb(255, 140, 0, 0.45) : Color.rgb(255, 230, 0, 0.35));
+        box.setMouseTransparent(true);
+        highlights.getChildren().add(box);
+      }
+    }
+  }
+
+  private void refineAfter(Duration delay) {
+    if (settle.getStatus() == Animation.Status.RUNNING && delay.greaterThan(settle.getDuration())) return;
+    settle.setDuration(delay);
+    settle.playFromStart();
+  }
+
+  private void refine() {
+    if (pageIndex < 0 || scrollPane == null || getScene() == null || getScene().getWindow() == null) return;
+
+    double neededDpi = RenderResolution.neededDpi(layoutDpi, getScaleX(), getScene().getWindow().getOutputScaleX());
+    if (neededDpi <= baseDpi) {
+      clearLevel();
+      previous.getChildren().clear();
+      levelScale = 0;
+      resolution.reset();
+      return;
+    }
+
+    float scale = resolution.update(neededDpi);
+    if (scale != levelScale) {
+      Group old = previous;
+      previous = current;
+      current = old;
+      clearLevel();
+      getChildren().setAll(base, previous, current, highlights);
+      levelScale = scale;
+    }
+
+    double pixelsPerUnit = scale * 72 / layoutDpi;
+    int columns = (int) Math.ceil(renderer.getPageWidth(pageIndex) * scale / TILE_SIZE);
+    int rows = (int) Math.ceil(renderer.getPageHeight(pageIndex) * scale / TILE_SIZE);
+    Bounds visible = visibleBounds();
+    int firstColumn = Math.max(0, (int) Math.floor(visible.getMinX() * pixelsPerUnit / TILE_SIZE) - 1);
+    int lastColumn = Math.min(columns - 1, (int) Math.floor(visible.getMaxX() * pixelsPerUnit / TILE_SIZE) + 1);
+    int firstRow = Math.max(0, (int) Math.floor(visible.getMinY() * pixelsPerUnit / TILE_SIZE) - 1);
+    int lastRow = Math.min(rows - 1, (int) Math.floor(visible.getMaxY() * pixelsPerUnit / TILE_SIZE) + 1);
+
+    Iterator<Map.Entry<Long, Future<?>>> requests = pending.entrySet().iterator();
+    while (requests.hasNext()) {
+      Map.Entry<Long, Future<?>> request = requests.next();
+      if (!inRange(request.getKey(), firstColumn, lastColumn, firstRow, lastRow)) {
+        request.getValue().cancel(false);
+        requests.remove();
+      }
+    }
+    Iterator<Map.Entry<Long, ImageView>> loaded = tiles.entrySet().iterator();
+    while (loaded.hasNext()) {
+      Map.Entry<Long, ImageView> tile = loaded.next();
+      if (!inRange(tile.getKey(), firstColumn, lastColumn, firstRow, lastRow)) {
+        current.getChildren().remove(tile.getValue());
+        loaded.remove();
+      }
+    }
+
+    double unitsPerTile = TILE_SIZE / pixelsPerUnit;
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        long key = tileKey(column, row);
+        if (tiles.containsKey(key) || pending.containsKey(key)) continue;
+
+        int tileColumn = column;
+        int tileRow = row;
+        Consumer<Image> place = image -> {
+          pending.remove(key);
+          ImageView tile = new ImageView(image);
+          tile.setSmooth(true);
+          tile.setLayoutX(tileColumn * unitsPerTile);
+          tile.setLayoutY(tileRow * unitsPerTile);
+          tile.setFitWidth(image.getWidth() / pixelsPerUnit);
+          tile.setFitHeight(image.getHeight() / pixelsPerUnit);
+          tiles.put(key, tile);
+          current.getChildren().add(tile);
+          if (pending.isEmpty()) previous.getChildren().clear();
+        };
+
+        Image cached = renderer.getCachedTile(pageIndex, scale, column, row);
+        if (cached != null) place.accept(cached);
+        else {
+          int requestPage = pageIndex;
+          pending.put(key, scheduler.renderTile(pageIndex, scale, column, row, TILE_SIZE, image -> {
+            if (requestPage == pageIndex && scale == levelScale && pending.containsKey(key)) place.accept(image);
+          }, onError));
+        }
+      }
+    }
+    if (pending.isEmpty()) previous.getChildren().clear();
+  }
+
+  private Bounds visibleBounds() {
+    Bounds viewport = scrollPane.getViewportBounds();
+    Bounds inScene = scrollPane.localToScene(new BoundingBox(0, 0, viewport.getWidth(), viewport.getHeight()));
+    Bounds local = sceneToLocal(inScene);
+    double minX = Math.max(0, local.getMinX());
+    double minY = Math.max(0, local.getMinY());
+    double maxX = Math.min(getPrefWidth(), local.getMaxX());
+    double maxY = Math.min(getPrefHeight(), local.getMaxY());
+    return new BoundingBox(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+  }
+
+  private void clearLevel() {
+    pending.values().forEach(request -> request.cancel(false));
+    pending.clear();
+    tiles.clear();
+    current.getChildren().clear();
+  }
+
+  private static long tileKey(int column, int row) { return ((long) row << 32) | (column & 0xffffffffL); }
+
+  private static boolean inRange(long key, int firstColumn, int lastColumn, int firstRow, int lastRow) {
+    int column = (int) key;
+    int row = (int) (key >> 32);
+    return column >= firstColumn && column <= lastColumn && row >= firstRow && row <= lastRow;
+  }
+}
@@ -12,6 +12,7 @@ import javafx.scene.layout.VBox;
 public class ZoomableScrollPane extends ScrollPane {
     public double scaleValue = 0.5;
     public double zoomIntensity = 0.04;
+    public double maxScale = 1;
     public Node target;
     public Node zoomNode;
     private final Slider zoomSlider;
@@ -61,7 +62,7 @@ public class ZoomableScrollPane extends ScrollPane {
         double valX = this.getHvalue() * (innerBounds.getWidth() - viewportBounds.getWidth());
         double valY = this.getVvalue() * (innerBounds.getHeight() - viewportBounds.getHeight());
 
-        scaleValue = Math.clamp(scaleValue * zoomFactor, 0, 1);
+        scaleValue = Math.clamp(scaleValue * zoomFactor, 0, maxScale);
         updateScale();
         this.layout();
 
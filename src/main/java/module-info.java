@@ -2,7 +2,10 @@ module com.goddard.goddardpdf {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.swing;
+    requires java.management;
     requires org.apache.pdfbox;
+    requires org.apache.pdfbox.io;
+    requires org.apache.commons.logging;
 
 
     opens com.goddard.goddardpdf to javafx.fxml;
@@ -0,0 +1,83 @@
+package com.goddard.goddardpdf;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PageCacheTest {
+
+  private static final long IMAGE_BYTES = 10 * 10 * 4;
+
+  private final Object document = new Object();
+  private final Object other = new Object();
+
+  private static Image image() { return new WritableImage(10, 10); }
+
+  private static PageCache.Key key(Object document, int pageIndex) { return new PageCache.Key(document, pageIndex, 1); }
+
+  @Test
+  void evictsLeastRecentlyUsedOnceFull() {
+    PageCache cache = new PageCache(3 * IMAGE_BYTES);
+    cache.put(key(document, 0), image());
+    cache.put(key(document, 1), image());
+    cache.put(key(document, 2), image());
+    cache.get(key(document, 0));
+    cache.put(key(document, 3), image());
+
+    assertNotNull(cache.get(key(document, 0)));
+    assertNull(cache.get(key(document, 1)));
+    assertNotNull(cache.get(key(document, 2)));
+    assertNotNull(cache.get(key(document, 3)));
+    assertEquals(3 * IMAGE_BYTES, cache.getCurrentBytes());
+  }
+
+  @Test
+  void replacingAnEntryKeepsByteCount() {
+    PageCache cache = new PageCache(3 * IMAGE_BYTES);
+    Image replacement = image();
+    cache.put(key(document, 0), image());
+    cache.put(key(document, 0), replacement);
+
+    assertSame(replacement, cache.get(key(document, 0)));
+    assertEquals(IMAGE_BYTES, cache.getCurrentBytes());
+  }
+
+  @Test
+  void skipsImagesLargerThanTheCache() {
+    PageCache cache = new PageCache(IMAGE_BYTES);
+    cache.put(key(document, 0), new WritableImage(20, 20));
+
+    assertNull(cache.get(key(document, 0)));
+    assertEquals(0, cache.getCurrentBytes());
+  }
+
+  @Test
+  void evictsInactiveDocumentsFirst() {
+    PageCache cache = new PageCache(2 * IMAGE_BYTES);
+    cache.setActive(document);
+    cache.put(key(document, 0), image());
+    cache.put(key(other, 0), image());
+    cache.put(key(document, 1), image());
+
+    assertNotNull(cache.get(key(document, 0)));
+    assertNull(cache.get(key(other, 0)));
+    assertNotNull(cache.get(key(document, 1)));
+  }
+
+  @Test
+  void invalidateDropsOnlyThatDocument() {
+    PageCache cache = new PageCache(4 * IMAGE_BYTES);
+    cache.put(key(document, 0), image());
+    cache.put(key(other, 0), image());
+    cache.invalidate(document);
+
+    assertNull(cache.get(key(document, 0)));
+    assertNotNull(cache.get(key(other, 0)));
+    assertEquals(IMAGE_BYTES, cache.getCurrentBytes());
+  }
+}
@@ -0,0 +1,47 @@
+package com.goddard.goddardpdf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageRangeTest {
+
+  @Test
+  void parsesSinglePagesAndRanges() {
+    assertEquals(List.of(new PageRange(0, 2), new PageRange(4, 4), new PageRange(6, 7)), PageRange.parse("1-3, 5,7 - 8", 10));
+  }
+
+  @Test
+  void openEndedRangeRunsToLastPage() {
+    assertEquals(List.of(new PageRange(7, 9)), PageRange.parse("8-", 10));
+    assertEquals(List.of(new PageRange(9, 9)), PageRange.parse("10-", 10));
+  }
+
+  @Test
+  void skipsEmptyParts() {
+    assertEquals(List.of(new PageRange(1, 1), new PageRange(3, 3)), PageRange.parse(" 2, ,4,", 10));
+  }
+
+  @Test
+  void rejectsBadInput() {
+    for (String text : List.of("", " , ", "abc", "1-x", "-3", "0", "11", "3-11", "5-3", "1--2")) {
+      assertThrows(IllegalArgumentException.class, () -> PageRange.parse(text, 10), text);
+    }
+  }
+
+  @Test
+  void collapsesPagesIntoRanges() {
+    assertEquals(List.of(new PageRange(0, 2), new PageRange(5, 5), new PageRange(7, 8)), PageRange.of(new int[] {8, 1, 0, 2, 5, 7, 1}));
+    assertArrayEquals(new int[] {0, 1, 2, 5}, PageRange.pages(List.of(new PageRange(0, 2), new PageRange(5, 5))));
+  }
+
+  @Test
+  void printsOneBasedPages() {
+    assertEquals("3", new PageRange(2, 2).toString());
+    assertEquals("1-4", new PageRange(0, 3).toString());
+  }
+}
@@ -0,0 +1,54 @@
+package com.goddard.goddardpdf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RenderResolutionTest {
+
+  private RenderResolution resolution;
+
+  @BeforeEach
+  void setUp() { resolution = new RenderResolution(72, 600, RenderResolution.DEFAULT_HYSTERESIS); }
+
+  @Test
+  void roundsUpToPowerOfTwoLevel() {
+    assertEquals(2f, resolution.update(100));
+    resolution.reset();
+    assertEquals(2f, resolution.update(144));
+    resolution.reset();
+    assertEquals(1f, resolution.update(72));
+  }
+
+  @Test
+  void staysOnLevelWithinHysteresis() {
+    resolution.update(100);
+    assertEquals(2f, resolution.update(172));
+    assertEquals(2f, resolution.update(116));
+  }
+
+  @Test
+  void stepsUpPastUpperThreshold() {
+    resolution.update(100);
+    assertEquals(4f, resolution.update(175));
+  }
+
+  @Test
+  void stepsDownPastLowerThreshold() {
+    resolution.update(200);
+    assertEquals(4f, resolution.update(120));
+    assertEquals(2f, resolution.update(115));
+  }
+
+  @Test
+  void clampsToLimits() {
+    assertEquals(600f / 72, resolution.update(5000));
+    assertEquals(1f, resolution.update(1));
+  }
+
+  @Test
+  void neededDpiCombinesLayoutZoomAndScreenScale() {
+    assertEquals(216, RenderResolution.neededDpi(72, 1.5, 2));
+  }
+}
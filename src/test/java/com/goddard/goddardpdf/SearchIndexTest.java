@@ -0,0 +1,99 @@
+package com.goddard.goddardpdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+  private static final String[] PAGES = {"The quick brown fox", "A quick brown bear jumps", "Nothing to see here", "quick thinking, brown paper"};
+
+  @TempDir
+  static Path directory;
+
+  private static ThreadPoolExecutor executor;
+  private static SearchIndex index;
+
+  @BeforeAll
+  static void buildIndex() throws IOException, InterruptedException {
+    File file = directory.resolve("search.pdf").toFile();
+    try (PDDocument document = new PDDocument()) {
+      for (String text : PAGES) {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+          content.beginText();
+          content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+          content.newLineAtOffset(72, 700);
+          content.showText(text);
+          content.endText();
+        }
+      }
+      document.save(file);
+    }
+
+    executor = DocumentWorkerPool.newExecutor("search-test", 1);
+    index = new SearchIndex(new DocumentSource(file, false, DocumentSource.UNLIMITED_HEAP), PAGES.length, null, executor);
+    CountDownLatch indexed = new CountDownLatch(1);
+    index.start((pages, total) -> { if (pages == total) indexed.countDown(); });
+    assertTrue(indexed.await(30, TimeUnit.SECONDS));
+  }
+
+  @AfterAll
+  static void shutdown() {
+    index.close();
+    executor.shutdown();
+  }
+
+  private static List<Integer> pages(String query) { return index.search(query).stream().map(SearchIndex.Hit::pageIndex).toList(); }
+
+  @Test
+  void findsPhrasesInOrder() {
+    assertEquals(List.of(0, 1), pages("quick brown"));
+    assertEquals(List.of(), pages("brown quick"));
+    assertEquals(List.of(), pages("fox jumps"));
+  }
+
+  @Test
+  void treatsLastWordAsPrefix() {
+    assertEquals(List.of(0, 1, 3), pages("qui"));
+    assertEquals(List.of(0), pages("brown fo"));
+    assertEquals(List.of(), pages("quic brown"));
+  }
+
+  @Test
+  void ignoresCaseAndPunctuation() {
+    assertEquals(List.of(0, 1), pages("QUICK, Brown"));
+    assertEquals(List.of(3), pages("thinking brown"));
+  }
+
+  @Test
+  void returnsOneBoxPerMatchedWord() {
+    SearchIndex.Hit hit = index.search("quick brown fox").get(0);
+    assertEquals(0, hit.pageIndex());
+    assertEquals(3 * 4, hit.boxes().length);
+  }
+
+  @Test
+  void ignoresEmptyQueries() {
+    assertEquals(List.of(), pages(" ,. "));
+    assertEquals(List.of(), pages("missing"));
+  }
+}